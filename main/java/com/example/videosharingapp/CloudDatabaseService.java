@@ -5,27 +5,55 @@
 
 package com.example.videosharingapp;
 
+import android.content.Context;
+import android.content.SharedPreferences;
 import android.util.Log;
 
+import com.example.videosharingapp.api.RequestHandle;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.MetadataChanges;
 import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 public class CloudDatabaseService {
 
     private static final String TAG = "CloudDatabaseService";
     private static final String USERS_COLLECTION = "users";
     private static final String YOUTUBE_CHANNELS_COLLECTION = "youtube_channels";
+    // Firestore's limit on reads per page we request and on writes per batch
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final String PROFILE_PREFS = "cloud_user_profile";
+    private static final String KEY_PROFILE_PREFIX = "profile_";
+    private static final String KEY_LAST_LOGIN_PREFIX = "last_login_";
+
+    public static final long DEFAULT_LAST_LOGIN_GRANULARITY_MILLIS = TimeUnit.HOURS.toMillis(1);
+    public static final int DEFAULT_CHANNEL_PAGE_SIZE = 10;
 
     private FirebaseFirestore db;
     private FirebaseAuth auth;
+    private FirestoreWriteBuffer writeBuffer;
+    // Last profile written for each user, so unchanged profiles are not written again
+    private SharedPreferences profileStore;
+    private final Gson gson = new Gson();
+    private long lastLoginGranularityMillis = DEFAULT_LAST_LOGIN_GRANULARITY_MILLIS;
 
     // Callback interfaces
     public interface UserDataCallback {
@@ -43,48 +71,183 @@ public class CloudDatabaseService {
         void onFailure(Exception e);
     }
 
+    public interface ChannelPageCallback {
+        void onSuccess(List<Map<String, Object>> channels, boolean hasMore);
+        void onFailure(Exception e);
+    }
+
+    public interface ChannelChangesCallback {
+        void onChanges(List<ChannelChange> changes);
+        void onFailure(Exception e);
+    }
+
+    /**
+     * One channel added to, changed in or removed from a listened window. Indices are
+     * positions in the window before and after the change (-1 where not applicable), so they
+     * can be applied in order to a list the same way a RecyclerView adapter is notified.
+     */
+    public static class ChannelChange {
+        public enum Type { ADDED, MODIFIED, REMOVED }
+
+        private final Type type;
+        private final String documentId;
+        private final Map<String, Object> channel;
+        private final int oldIndex;
+        private final int newIndex;
+
+        ChannelChange(Type type, String documentId, Map<String, Object> channel, int oldIndex, int newIndex) {
+            this.type = type;
+            this.documentId = documentId;
+            this.channel = channel;
+            this.oldIndex = oldIndex;
+            this.newIndex = newIndex;
+        }
+
+        public Type getType() { return type; }
+        public String getDocumentId() { return documentId; }
+        public Map<String, Object> getChannel() { return channel; }
+        public int getOldIndex() { return oldIndex; }
+        public int getNewIndex() { return newIndex; }
+    }
+
+    /**
+     * Position in the channel list, newest first. Keep the same cursor to carry on where the
+     * last page ended. It holds the last document read, so startAfter() continues right after
+     * it even when several channels share a timestamp.
+     */
+    public static class ChannelCursor {
+        private final int pageSize;
+        private DocumentSnapshot lastDocument;
+        private boolean hasMore = true;
+        private boolean loading;
+        // Incremented by reset so a page still loading from before it is dropped
+        private int generation;
+
+        public ChannelCursor(int pageSize) {
+            this.pageSize = Math.max(1, pageSize);
+        }
+
+        public boolean hasMore() {
+            return hasMore;
+        }
+
+        public boolean isLoading() {
+            return loading;
+        }
+
+        /**
+         * Start again from the newest channel. A page still loading is dropped without a callback.
+         */
+        public void reset() {
+            generation++;
+            lastDocument = null;
+            hasMore = true;
+            loading = false;
+        }
+    }
+
     public CloudDatabaseService() {
         db = FirebaseFirestore.getInstance();
         auth = FirebaseAuth.getInstance();
+        writeBuffer = FirestoreWriteBuffer.getInstance();
+    }
+
+    /**
+     * Create a service that remembers the last profile it wrote, so writeUserData only
+     * sends what changed
+     */
+    public CloudDatabaseService(Context context) {
+        this();
+        profileStore = context.getApplicationContext().getSharedPreferences(PROFILE_PREFS, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * How stale lastLoginTime may get before a login updates it, e.g. an hour or a day
+     */
+    public void setLastLoginGranularity(long granularityMillis) {
+        this.lastLoginGranularityMillis = Math.max(0, granularityMillis);
     }
 
     /**
      * Write user information to cloud database
-     * Performance tracking: Measures time between request and response
+     * Only fields that differ from the last written profile are sent, merged into the
+     * document, and lastLoginTime is only refreshed once per granularity window. When nothing
+     * needs writing the callback succeeds without touching the network.
+     * The write is buffered and committed with other pending writes in one batch
      */
     public void writeUserData(WriteCallback callback) {
-        long startTime = System.currentTimeMillis();
-
         FirebaseUser currentUser = auth.getCurrentUser();
         if (currentUser == null) {
             callback.onFailure(new Exception("User not authenticated"));
             return;
         }
 
-        Map<String, Object> userData = new HashMap<>();
-        userData.put("email", currentUser.getEmail());
-        userData.put("name", currentUser.getDisplayName());
-        userData.put("profileImageUrl", currentUser.getPhotoUrl() != null ?
+        String uid = currentUser.getUid();
+        Map<String, String> profile = new HashMap<>();
+        profile.put("email", currentUser.getEmail());
+        profile.put("name", currentUser.getDisplayName());
+        profile.put("profileImageUrl", currentUser.getPhotoUrl() != null ?
                 currentUser.getPhotoUrl().toString() : "");
-        userData.put("lastLoginTime", System.currentTimeMillis());
-        userData.put("userId", currentUser.getUid());
+        profile.put("userId", uid);
 
-        db.collection(USERS_COLLECTION)
-                .document(currentUser.getUid())
-                .set(userData)
-                .addOnSuccessListener(aVoid -> {
-                    long endTime = System.currentTimeMillis();
-                    long duration = endTime - startTime;
-                    Log.d(TAG, "User data write completed in: " + duration + "ms");
-                    // Performance factors: Network latency, document size, server load
-                    callback.onSuccess();
-                })
-                .addOnFailureListener(e -> {
-                    long endTime = System.currentTimeMillis();
-                    long duration = endTime - startTime;
-                    Log.e(TAG, "User data write failed after: " + duration + "ms", e);
-                    callback.onFailure(e);
-                });
+        long now = System.currentTimeMillis();
+        Map<String, String> lastWritten = readLastWrittenProfile(uid);
+        long lastLoginWritten = profileStore != null ? profileStore.getLong(KEY_LAST_LOGIN_PREFIX + uid, 0) : 0;
+
+        Map<String, Object> userData = new HashMap<>();
+        for (Map.Entry<String, String> field : profile.entrySet()) {
+            if (lastWritten == null || !Objects.equals(lastWritten.get(field.getKey()), field.getValue())) {
+                userData.put(field.getKey(), field.getValue());
+            }
+        }
+        boolean updateLastLogin = now - lastLoginWritten >= lastLoginGranularityMillis;
+        if (updateLastLogin) {
+            userData.put("lastLoginTime", now);
+        }
+
+        if (userData.isEmpty()) {
+            Log.d(TAG, "User profile unchanged, skipping write");
+            callback.onSuccess();
+            return;
+        }
+
+        Log.d(TAG, "Writing user profile fields: " + userData.keySet());
+        writeBuffer.set(db.collection(USERS_COLLECTION).document(uid), userData, true, new WriteCallback() {
+            @Override
+            public void onSuccess() {
+                // Only remembered once written, so a failed write is retried next time
+                if (profileStore != null) {
+                    SharedPreferences.Editor editor = profileStore.edit()
+                            .putString(KEY_PROFILE_PREFIX + uid, gson.toJson(profile));
+                    if (updateLastLogin) {
+                        editor.putLong(KEY_LAST_LOGIN_PREFIX + uid, now);
+                    }
+                    editor.apply();
+                }
+                callback.onSuccess();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    private Map<String, String> readLastWrittenProfile(String uid) {
+        if (profileStore == null) {
+            return null;
+        }
+        String json = profileStore.getString(KEY_PROFILE_PREFIX + uid, null);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return gson.fromJson(json, new TypeToken<Map<String, String>>() {}.getType());
+        } catch (Exception e) {
+            Log.w(TAG, "Discarding unreadable stored profile", e);
+            return null;
+        }
     }
 
     /**
@@ -123,10 +286,16 @@ public class CloudDatabaseService {
 
     /**
      * Write YouTube channel data to cloud database
+     * Channels are stored under their channel ID and merged, so saving a channel again updates
+     * its document instead of adding another one. Writes are buffered, so saving many channels
+     * costs a few batch commits rather than one write each.
      */
     public void writeChannelData(String channelId, String channelName,
                                  String description, int subscriberCount, WriteCallback callback) {
-        long startTime = System.currentTimeMillis();
+        if (channelId == null || channelId.isEmpty() || channelId.contains("/")) {
+            callback.onFailure(new IllegalArgumentException("Invalid channel ID: " + channelId));
+            return;
+        }
 
         Map<String, Object> channelData = new HashMap<>();
         channelData.put("channelId", channelId);
@@ -137,40 +306,150 @@ public class CloudDatabaseService {
                 auth.getCurrentUser().getUid() : "unknown");
         channelData.put("timestamp", System.currentTimeMillis());
 
-        db.collection(YOUTUBE_CHANNELS_COLLECTION)
-                .add(channelData)
-                .addOnSuccessListener(documentReference -> {
-                    long endTime = System.currentTimeMillis();
-                    long duration = endTime - startTime;
-                    Log.d(TAG, "Channel data write completed in: " + duration + "ms");
-                    /*
-                     * Performance factors affecting cloud data access:
-                     * 1. Network latency and bandwidth
-                     * 2. Document size and complexity
-                     * 3. Firestore server load and geographic location
-                     * 4. Device processing power and memory
-                     * 5. Number of concurrent operations
-                     * 6. Index optimization for queries
-                     */
-                    callback.onSuccess();
+        writeBuffer.set(db.collection(YOUTUBE_CHANNELS_COLLECTION).document(channelId), channelData, true, callback);
+    }
+
+    /**
+     * One-off cleanup for channels saved before documents were keyed by channel ID. Every
+     * channel ends up in a single document named after its ID, holding its most recent data,
+     * and the duplicate documents are deleted. Reads and writes are done in batches of 500.
+     */
+    public void compactChannelDuplicates(WriteCallback callback) {
+        long startTime = System.currentTimeMillis();
+        Map<String, List<DocumentSnapshot>> byChannel = new LinkedHashMap<>();
+        readAllChannelDocuments(null, byChannel, new WriteCallback() {
+            @Override
+            public void onSuccess() {
+                List<DocumentReference> deletes = new ArrayList<>();
+                Map<DocumentReference, Map<String, Object>> upserts = new LinkedHashMap<>();
+
+                for (Map.Entry<String, List<DocumentSnapshot>> entry : byChannel.entrySet()) {
+                    String channelId = entry.getKey();
+                    List<DocumentSnapshot> documents = entry.getValue();
+                    DocumentSnapshot newest = null;
+                    boolean keyed = false;
+                    for (DocumentSnapshot document : documents) {
+                        if (document.getId().equals(channelId)) {
+                            keyed = true;
+                        } else {
+                            deletes.add(document.getReference());
+                        }
+                        if (newest == null || timestampOf(document) > timestampOf(newest)) {
+                            newest = document;
+                        }
+                    }
+                    // Already compact: a single document under the channel ID
+                    if (keyed && documents.size() == 1) {
+                        continue;
+                    }
+                    if (!newest.getId().equals(channelId)) {
+                        upserts.put(db.collection(YOUTUBE_CHANNELS_COLLECTION).document(channelId), newest.getData());
+                    }
+                }
+
+                Log.d(TAG, "Compaction read " + byChannel.size() + " channels in "
+                        + (System.currentTimeMillis() - startTime) + "ms: " + upserts.size()
+                        + " to rewrite, " + deletes.size() + " duplicates to delete");
+                commitCompaction(new ArrayList<>(upserts.entrySet()), deletes, 0, callback);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "Compaction failed while reading channels", e);
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    private void readAllChannelDocuments(DocumentSnapshot after, Map<String, List<DocumentSnapshot>> byChannel,
+                                         WriteCallback callback) {
+        Query query = db.collection(YOUTUBE_CHANNELS_COLLECTION)
+                .orderBy(FieldPath.documentId())
+                .limit(MAX_BATCH_SIZE);
+        if (after != null) {
+            query = query.startAfter(after);
+        }
+
+        query.get()
+                .addOnSuccessListener(snapshots -> {
+                    List<DocumentSnapshot> documents = snapshots.getDocuments();
+                    for (DocumentSnapshot document : documents) {
+                        String channelId = document.getString("channelId");
+                        if (channelId == null || channelId.isEmpty() || channelId.contains("/")) {
+                            continue;
+                        }
+                        List<DocumentSnapshot> group = byChannel.get(channelId);
+                        if (group == null) {
+                            group = new ArrayList<>();
+                            byChannel.put(channelId, group);
+                        }
+                        group.add(document);
+                    }
+
+                    if (documents.size() < MAX_BATCH_SIZE) {
+                        callback.onSuccess();
+                    } else {
+                        readAllChannelDocuments(documents.get(documents.size() - 1), byChannel, callback);
+                    }
                 })
+                .addOnFailureListener(callback::onFailure);
+    }
+
+    /**
+     * Commit the upserts first, then the deletes, at most 500 operations per batch, so a
+     * channel's data is never deleted before its keyed document has been written
+     */
+    private void commitCompaction(List<Map.Entry<DocumentReference, Map<String, Object>>> upserts,
+                                  List<DocumentReference> deletes, int offset, WriteCallback callback) {
+        int total = upserts.size() + deletes.size();
+        if (offset >= total) {
+            Log.d(TAG, "Channel compaction finished, " + total + " operations");
+            callback.onSuccess();
+            return;
+        }
+
+        WriteBatch batch = db.batch();
+        int end = Math.min(total, offset + MAX_BATCH_SIZE);
+        for (int i = offset; i < end; i++) {
+            if (i < upserts.size()) {
+                Map.Entry<DocumentReference, Map<String, Object>> upsert = upserts.get(i);
+                batch.set(upsert.getKey(), upsert.getValue(), SetOptions.merge());
+            } else {
+                batch.delete(deletes.get(i - upserts.size()));
+            }
+        }
+
+        batch.commit()
+                .addOnSuccessListener(aVoid -> commitCompaction(upserts, deletes, end, callback))
                 .addOnFailureListener(e -> {
-                    long endTime = System.currentTimeMillis();
-                    long duration = endTime - startTime;
-                    Log.e(TAG, "Channel data write failed after: " + duration + "ms", e);
+                    Log.e(TAG, "Channel compaction batch failed at operation " + offset, e);
                     callback.onFailure(e);
                 });
     }
 
+    private static long timestampOf(DocumentSnapshot document) {
+        Long timestamp = document.getLong("timestamp");
+        return timestamp != null ? timestamp : 0;
+    }
+
     /**
-     * Read YouTube channel data from cloud database
+     * Commit any buffered writes now instead of waiting for the buffer window to close
      */
-    public void readChannelData(ChannelDataCallback callback) {
+    public void flushPendingWrites() {
+        writeBuffer.flush();
+    }
+
+    /**
+     * Read YouTube channel data from cloud database. Firestore reads cannot be stopped once
+     * sent, but cancelling the returned handle drops the result so the callback never runs.
+     */
+    public RequestHandle readChannelData(ChannelDataCallback callback) {
+        RequestHandle handle = new RequestHandle();
         long startTime = System.currentTimeMillis();
 
         db.collection(YOUTUBE_CHANNELS_COLLECTION)
                 .orderBy("timestamp", Query.Direction.DESCENDING)
-                .limit(10) // Optimization: Limit results for better performance
+                .limit(DEFAULT_CHANNEL_PAGE_SIZE) // Optimization: Limit results for better performance
                 .get()
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     long endTime = System.currentTimeMillis();
@@ -182,14 +461,83 @@ public class CloudDatabaseService {
                             .map(doc -> doc.getData())
                             .collect(java.util.stream.Collectors.toList());
 
-                    callback.onSuccess(channels);
+                    handle.deliver(() -> callback.onSuccess(channels));
                 })
                 .addOnFailureListener(e -> {
                     long endTime = System.currentTimeMillis();
                     long duration = endTime - startTime;
                     Log.e(TAG, "Channel data read failed after: " + duration + "ms", e);
-                    callback.onFailure(e);
+                    handle.deliver(() -> callback.onFailure(e));
+                });
+        return handle;
+    }
+
+    /**
+     * Read the next page of channels after the cursor's position and move the cursor on.
+     * Cancelling the returned handle drops the result; the cursor still moves on if the page arrives.
+     * Resetting the cursor while the page loads drops the page and leaves the cursor as reset.
+     */
+    public RequestHandle readChannelPage(ChannelCursor cursor, ChannelPageCallback callback) {
+        RequestHandle handle = new RequestHandle();
+        if (cursor.loading) {
+            handle.deliver(() -> callback.onFailure(new IllegalStateException("A page is already loading for this cursor")));
+            return handle;
+        }
+        if (!cursor.hasMore) {
+            handle.deliver(() -> callback.onSuccess(new ArrayList<>(), false));
+            return handle;
+        }
+
+        long startTime = System.currentTimeMillis();
+        Query query = db.collection(YOUTUBE_CHANNELS_COLLECTION)
+                .orderBy("timestamp", Query.Direction.DESCENDING)
+                .limit(cursor.pageSize);
+        if (cursor.lastDocument != null) {
+            query = query.startAfter(cursor.lastDocument);
+        }
+
+        cursor.loading = true;
+        int generation = cursor.generation;
+        query.get()
+                .addOnSuccessListener(queryDocumentSnapshots -> {
+                    if (generation != cursor.generation) {
+                        return;
+                    }
+                    cursor.loading = false;
+                    List<DocumentSnapshot> documents = queryDocumentSnapshots.getDocuments();
+                    Log.d(TAG, "Channel page of " + documents.size() + " read in: "
+                            + (System.currentTimeMillis() - startTime) + "ms");
+
+                    List<Map<String, Object>> channels = new ArrayList<>();
+                    for (DocumentSnapshot document : documents) {
+                        channels.add(document.getData());
+                    }
+                    if (!documents.isEmpty()) {
+                        cursor.lastDocument = documents.get(documents.size() - 1);
+                    }
+                    cursor.hasMore = documents.size() == cursor.pageSize;
+                    boolean hasMore = cursor.hasMore;
+                    handle.deliver(() -> callback.onSuccess(channels, hasMore));
+                })
+                .addOnFailureListener(e -> {
+                    if (generation != cursor.generation) {
+                        return;
+                    }
+                    cursor.loading = false;
+                    Log.e(TAG, "Channel page read failed after: " + (System.currentTimeMillis() - startTime) + "ms", e);
+                    handle.deliver(() -> callback.onFailure(e));
                 });
+        return handle;
+    }
+
+    /**
+     * Listen to the newest channels, one page to start with. Call loadMore() on the returned
+     * listener to grow the window as the user scrolls, and remove() when done.
+     */
+    public PagedChannelListener setupPagedChannelDataListener(int pageSize, ChannelDataCallback callback) {
+        Log.d(TAG, "Setting up paged real-time listener for channel data");
+        return new PagedChannelListener(db.collection(YOUTUBE_CHANNELS_COLLECTION)
+                .orderBy("timestamp", Query.Direction.DESCENDING), Math.max(1, pageSize), callback);
     }
 
     /**
@@ -201,7 +549,7 @@ public class CloudDatabaseService {
 
         return db.collection(YOUTUBE_CHANNELS_COLLECTION)
                 .orderBy("timestamp", Query.Direction.DESCENDING)
-                .limit(10)
+                .limit(DEFAULT_CHANNEL_PAGE_SIZE)
                 .addSnapshotListener((queryDocumentSnapshots, e) -> {
                     if (e != null) {
                         Log.w(TAG, "Channel data listener failed", e);
@@ -221,6 +569,55 @@ public class CloudDatabaseService {
                 });
     }
 
+    /**
+     * Listen to the newest channels and receive only what changed in each snapshot. The first
+     * callback lists every channel as ADDED. Snapshots that only change metadata, such as
+     * hasPendingWrites flipping once a local write is acknowledged, are not delivered.
+     */
+    public ListenerRegistration setupChannelChangesListener(int limit, ChannelChangesCallback callback) {
+        Log.d(TAG, "Setting up real-time change listener for channel data");
+
+        return db.collection(YOUTUBE_CHANNELS_COLLECTION)
+                .orderBy("timestamp", Query.Direction.DESCENDING)
+                .limit(Math.max(1, limit))
+                .addSnapshotListener(MetadataChanges.EXCLUDE, (queryDocumentSnapshots, e) -> {
+                    if (e != null) {
+                        Log.w(TAG, "Channel change listener failed", e);
+                        callback.onFailure(e);
+                        return;
+                    }
+                    if (queryDocumentSnapshots == null) {
+                        return;
+                    }
+
+                    List<DocumentChange> documentChanges =
+                            queryDocumentSnapshots.getDocumentChanges(MetadataChanges.EXCLUDE);
+                    if (documentChanges.isEmpty()) {
+                        return;
+                    }
+
+                    List<ChannelChange> changes = new ArrayList<>(documentChanges.size());
+                    for (DocumentChange change : documentChanges) {
+                        changes.add(new ChannelChange(toChangeType(change.getType()),
+                                change.getDocument().getId(), change.getDocument().getData(),
+                                change.getOldIndex(), change.getNewIndex()));
+                    }
+                    Log.d(TAG, "Channel data changed: " + changes.size() + " documents");
+                    callback.onChanges(changes);
+                });
+    }
+
+    private static ChannelChange.Type toChangeType(DocumentChange.Type type) {
+        switch (type) {
+            case ADDED:
+                return ChannelChange.Type.ADDED;
+            case REMOVED:
+                return ChannelChange.Type.REMOVED;
+            default:
+                return ChannelChange.Type.MODIFIED;
+        }
+    }
+
     /**
      * Set up listener for user data updates
      */
@@ -0,0 +1,193 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write-behind buffer for Firestore. Writes are held briefly and committed together as one
+ * WriteBatch once maxDocuments are waiting or flushDelayMillis has passed, whichever comes
+ * first. Writes to the same document within one window collapse into a single write, and
+ * every callback enqueued in the window is told the outcome of the commit exactly once.
+ */
+public class FirestoreWriteBuffer {
+
+    private static final String TAG = "FirestoreWriteBuffer";
+
+    public static final int DEFAULT_MAX_DOCUMENTS = 50;
+    public static final long DEFAULT_FLUSH_DELAY_MILLIS = 2000;
+    // Firestore rejects batches with more than 500 writes
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private static FirestoreWriteBuffer instance;
+
+    private final FirebaseFirestore db;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushTask = this::flush;
+
+    // Document path -> latest write, in the order documents were first written
+    private final Map<String, PendingWrite> pending = new LinkedHashMap<>();
+    private final List<CloudDatabaseService.WriteCallback> callbacks = new ArrayList<>();
+    private boolean flushScheduled;
+    private int collapsedInWindow;
+
+    private int maxDocuments = DEFAULT_MAX_DOCUMENTS;
+    private long flushDelayMillis = DEFAULT_FLUSH_DELAY_MILLIS;
+
+    private static class PendingWrite {
+        final DocumentReference reference;
+        final Map<String, Object> data;
+        final boolean merge;
+
+        PendingWrite(DocumentReference reference, Map<String, Object> data, boolean merge) {
+            this.reference = reference;
+            this.data = data;
+            this.merge = merge;
+        }
+    }
+
+    private FirestoreWriteBuffer(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    // Shared so writes from every screen land in the same window
+    public static synchronized FirestoreWriteBuffer getInstance() {
+        if (instance == null) {
+            instance = new FirestoreWriteBuffer(FirebaseFirestore.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Flush after this many distinct documents (at most 500) or this long after the first
+     * buffered write, whichever comes first
+     */
+    public synchronized void setLimits(int maxDocuments, long flushDelayMillis) {
+        this.maxDocuments = Math.max(1, Math.min(MAX_BATCH_SIZE, maxDocuments));
+        this.flushDelayMillis = Math.max(0, flushDelayMillis);
+    }
+
+    /**
+     * Buffer a set() of the document, or a set() with SetOptions.merge() when merge is true
+     */
+    public void set(DocumentReference reference, Map<String, Object> data, boolean merge,
+                    CloudDatabaseService.WriteCallback callback) {
+        boolean flushNow;
+        synchronized (this) {
+            String path = reference.getPath();
+            PendingWrite previous = pending.get(path);
+            if (previous != null) {
+                collapsedInWindow++;
+                if (merge) {
+                    // A merge on top of an earlier write in the window only overrides the fields it names
+                    pending.put(path, new PendingWrite(reference, mergeFields(previous.data, data), previous.merge));
+                } else {
+                    pending.put(path, new PendingWrite(reference, data, false));
+                }
+            } else {
+                pending.put(path, new PendingWrite(reference, data, merge));
+            }
+
+            if (callback != null && !callbacks.contains(callback)) {
+                callbacks.add(callback);
+            }
+
+            flushNow = pending.size() >= maxDocuments;
+            if (!flushNow && !flushScheduled) {
+                flushScheduled = true;
+                handler.postDelayed(flushTask, flushDelayMillis);
+            }
+        }
+
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    /**
+     * Commit everything buffered so far, e.g. before the app goes to the background
+     */
+    public void flush() {
+        List<PendingWrite> writes;
+        List<CloudDatabaseService.WriteCallback> waiting;
+        int collapsed;
+        synchronized (this) {
+            handler.removeCallbacks(flushTask);
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            writes = new ArrayList<>(pending.values());
+            waiting = new ArrayList<>(callbacks);
+            collapsed = collapsedInWindow;
+            pending.clear();
+            callbacks.clear();
+            collapsedInWindow = 0;
+        }
+
+        long startTime = System.currentTimeMillis();
+        WriteBatch batch = db.batch();
+        for (PendingWrite write : writes) {
+            if (write.merge) {
+                batch.set(write.reference, write.data, SetOptions.merge());
+            } else {
+                batch.set(write.reference, write.data);
+            }
+        }
+
+        batch.commit()
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, "Committed " + writes.size() + " documents (" + collapsed
+                            + " writes collapsed) in " + (System.currentTimeMillis() - startTime) + "ms");
+                    for (CloudDatabaseService.WriteCallback callback : waiting) {
+                        callback.onSuccess();
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Batch of " + writes.size() + " documents failed after "
+                            + (System.currentTimeMillis() - startTime) + "ms", e);
+                    for (CloudDatabaseService.WriteCallback callback : waiting) {
+                        callback.onFailure(e);
+                    }
+                });
+    }
+
+    /**
+     * Combine two writes the way SetOptions.merge() would apply them one after the other:
+     * nested maps are merged field by field, any other value replaces the earlier one.
+     * Neither argument is modified.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> mergeFields(Map<String, Object> earlier, Map<String, Object> later) {
+        Map<String, Object> combined = new HashMap<>(earlier);
+        for (Map.Entry<String, Object> entry : later.entrySet()) {
+            Object previous = combined.get(entry.getKey());
+            Object value = entry.getValue();
+            if (previous instanceof Map && value instanceof Map) {
+                value = mergeFields((Map<String, Object>) previous, (Map<String, Object>) value);
+            }
+            combined.put(entry.getKey(), value);
+        }
+        return combined;
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+}
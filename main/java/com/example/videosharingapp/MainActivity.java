@@ -13,6 +13,7 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.videosharingapp.api.ApiClientRegistry;
 import com.example.videosharingapp.api.YouTubeApiManager;
 import com.example.videosharingapp.models.YouTubeChannel;
 import com.google.android.material.card.MaterialCardView;
@@ -31,7 +32,7 @@ public class MainActivity extends AppCompatActivity {
     private MaterialCardView watchVideoCard, listVideosCard;
     private TextView userInfo;
     private ListenerRegistration userDataListener;
-    private ListenerRegistration channelDataListener;
+    private PagedChannelListener channelDataListener;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -40,7 +41,7 @@ public class MainActivity extends AppCompatActivity {
 
         // Initialize Firebase Auth and Cloud Service
         mAuth = FirebaseAuth.getInstance();
-        cloudService = new CloudDatabaseService();
+        cloudService = new CloudDatabaseService(this);
 
         // Initialize UI components
         watchVideoCard = findViewById(R.id.watchVideoCard);
@@ -52,6 +53,9 @@ public class MainActivity extends AppCompatActivity {
         setupServiceClickListeners();
         setupCloudDatabase();
 
+        // The user is signed in, so open a connection to the API before the first list load
+        ApiClientRegistry.getInstance(this).prewarm();
+
         // Test YouTube API (uncomment to test)
         // testYouTubeApi();
     }
@@ -142,28 +146,30 @@ public class MainActivity extends AppCompatActivity {
             }
         });
 
-        // Set up channel data listener
-        channelDataListener = cloudService.setupChannelDataListener(new CloudDatabaseService.ChannelDataCallback() {
-            @Override
-            public void onSuccess(List<Map<String, Object>> channels) {
-                Log.d(TAG, "Channel data updated. Found " + channels.size() + " channels");
-                for (Map<String, Object> channel : channels) {
-                    Log.d(TAG, "Channel: " + channel.get("channelName"));
-                }
-            }
+        // Set up channel data listener. This screen only logs the channels and has no list to
+        // scroll, so the window stays at its first page and loadMore() is not called here.
+        channelDataListener = cloudService.setupPagedChannelDataListener(
+                CloudDatabaseService.DEFAULT_CHANNEL_PAGE_SIZE, new CloudDatabaseService.ChannelDataCallback() {
+                    @Override
+                    public void onSuccess(List<Map<String, Object>> channels) {
+                        Log.d(TAG, "Channel data updated. Found " + channels.size() + " channels");
+                        for (Map<String, Object> channel : channels) {
+                            Log.d(TAG, "Channel: " + channel.get("channelName"));
+                        }
+                    }
 
-            @Override
-            public void onFailure(Exception e) {
-                Log.e(TAG, "Channel data listener failed", e);
-            }
-        });
+                    @Override
+                    public void onFailure(Exception e) {
+                        Log.e(TAG, "Channel data listener failed", e);
+                    }
+                });
     }
 
     /**
      * Test API function
      */
     private void testYouTubeApi() {
-        YouTubeApiManager apiManager = new YouTubeApiManager(); // No account parameter needed
+        YouTubeApiManager apiManager = new YouTubeApiManager(this);
 
         // Test with a known channel ID
         String channelId = "UCBJycsmduvYEL83R_U4JriQ"; // YouTube Spotlight channel
@@ -258,7 +264,7 @@ public class MainActivity extends AppCompatActivity {
      * Additional test method for video list functionality
      */
     private void testYouTubeApiWithVideos() {
-        YouTubeApiManager apiManager = new YouTubeApiManager();
+        YouTubeApiManager apiManager = new YouTubeApiManager(this);
         String channelId = "UCBJycsmduvYEL83R_U4JriQ"; // YouTube Spotlight channel
 
         // First get channel info
@@ -320,6 +326,13 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // Don't leave buffered writes waiting while the app may be going to the background
+        cloudService.flushPendingWrites();
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
@@ -0,0 +1,144 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Realtime listener over the newest channels that grows one page at a time. Each page has
+ * its own listener bounded by document cursors, so loading more only adds a listener for the
+ * next page instead of re-querying the whole window from the top.
+ *
+ * The last page is open (limit(pageSize)). When more is loaded it is closed at its current
+ * last document with endAt(), and the next page starts after that document. Closed pages keep
+ * every document in their range, so a channel moving to the top only changes the pages it
+ * leaves and enters.
+ */
+public class PagedChannelListener {
+
+    private static final String TAG = "PagedChannelListener";
+
+    private final Query orderedQuery;
+    private final int pageSize;
+    private final CloudDatabaseService.ChannelDataCallback callback;
+    private final List<Page> pages = new ArrayList<>();
+    private boolean removed;
+
+    private static class Page {
+        // Exclusive start, null for the first page
+        final DocumentSnapshot start;
+        // Inclusive end, null while this is the open last page
+        DocumentSnapshot end;
+        ListenerRegistration registration;
+        List<DocumentSnapshot> documents = new ArrayList<>();
+        boolean loaded;
+
+        Page(DocumentSnapshot start) {
+            this.start = start;
+        }
+    }
+
+    PagedChannelListener(Query orderedQuery, int pageSize, CloudDatabaseService.ChannelDataCallback callback) {
+        this.orderedQuery = orderedQuery;
+        this.pageSize = pageSize;
+        this.callback = callback;
+        addPage(null);
+    }
+
+    /**
+     * True once the last page has filled up, i.e. there may be older channels to load
+     */
+    public boolean hasMore() {
+        Page last = pages.get(pages.size() - 1);
+        return !removed && last.loaded && last.documents.size() >= pageSize;
+    }
+
+    /**
+     * Extend the window by one page, e.g. when the user scrolls near the end of the list
+     */
+    public void loadMore() {
+        if (!hasMore()) {
+            return;
+        }
+
+        Page last = pages.get(pages.size() - 1);
+        DocumentSnapshot lastDocument = last.documents.get(last.documents.size() - 1);
+        last.end = lastDocument;
+        listen(last);
+        addPage(lastDocument);
+        Log.d(TAG, "Channel window grown to " + pages.size() + " pages");
+    }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    public void remove() {
+        removed = true;
+        for (Page page : pages) {
+            if (page.registration != null) {
+                page.registration.remove();
+                page.registration = null;
+            }
+        }
+    }
+
+    private void addPage(DocumentSnapshot start) {
+        Page page = new Page(start);
+        pages.add(page);
+        listen(page);
+    }
+
+    private void listen(Page page) {
+        if (page.registration != null) {
+            page.registration.remove();
+        }
+
+        Query query = orderedQuery;
+        if (page.start != null) {
+            query = query.startAfter(page.start);
+        }
+        query = page.end != null ? query.endAt(page.end) : query.limit(pageSize);
+
+        page.registration = query.addSnapshotListener((snapshots, e) -> {
+            if (removed) {
+                return;
+            }
+            if (e != null) {
+                Log.w(TAG, "Channel page listener failed", e);
+                callback.onFailure(e);
+                return;
+            }
+            if (snapshots != null) {
+                page.documents = snapshots.getDocuments();
+                page.loaded = true;
+                deliver();
+            }
+        });
+    }
+
+    private void deliver() {
+        List<Map<String, Object>> channels = new ArrayList<>();
+        for (Page page : pages) {
+            // Wait for every page so the window never has a gap in it
+            if (!page.loaded) {
+                return;
+            }
+            for (DocumentSnapshot document : page.documents) {
+                channels.add(document.getData());
+            }
+        }
+        callback.onSuccess(channels);
+    }
+}
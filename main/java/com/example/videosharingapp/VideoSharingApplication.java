@@ -0,0 +1,21 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp;
+
+import android.app.Application;
+
+import com.example.videosharingapp.api.ApiClientRegistry;
+
+public class VideoSharingApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // Create the shared HTTP client up front so every screen uses the same connection pool
+        ApiClientRegistry.getInstance(this);
+    }
+}
@@ -16,14 +16,12 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.videosharingapp.api.YouTubeUrlParser;
 import com.google.android.material.textfield.TextInputEditText;
 import com.pierfrancescosoffritti.androidyoutubeplayer.core.player.YouTubePlayer;
 import com.pierfrancescosoffritti.androidyoutubeplayer.core.player.listeners.AbstractYouTubePlayerListener;
 import com.pierfrancescosoffritti.androidyoutubeplayer.core.player.views.YouTubePlayerView;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 public class YouTubePlayerActivity extends AppCompatActivity {
 
     private static final String TAG = "YouTubePlayerActivity";
@@ -33,12 +31,7 @@ public class YouTubePlayerActivity extends AppCompatActivity {
     private Button playButton, backButton;
     private YouTubePlayer youTubePlayer;
     private String pendingVideoId; // Store video ID until player is ready
-
-    // YouTube URL patterns for validation
-    private static final String YOUTUBE_URL_PATTERN =
-            "^(https?://)?(www\\.)?(youtube\\.com/watch\\?v=|youtu\\.be/|youtube\\.com/embed/)([a-zA-Z0-9_-]{11}).*$";
-
-    private static final Pattern pattern = Pattern.compile(YOUTUBE_URL_PATTERN);
+    private int pendingStartSeconds;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -73,8 +66,9 @@ public class YouTubePlayerActivity extends AppCompatActivity {
                 // If we have a pending video ID, play it now
                 if (pendingVideoId != null) {
                     Log.d(TAG, "Playing pending video: " + pendingVideoId);
-                    playVideoById(pendingVideoId);
+                    playVideoById(pendingVideoId, pendingStartSeconds);
                     pendingVideoId = null; // Clear the pending video
+                    pendingStartSeconds = 0;
                 }
             }
 
@@ -114,7 +108,7 @@ public class YouTubePlayerActivity extends AppCompatActivity {
 
                 // If player is ready, play immediately. Otherwise, store for later
                 if (youTubePlayer != null) {
-                    playVideoById(videoId);
+                    playVideoById(videoId, 0);
                 } else {
                     pendingVideoId = videoId;
                     Log.d(TAG, "Player not ready yet, storing video ID for later play");
@@ -131,83 +125,40 @@ public class YouTubePlayerActivity extends AppCompatActivity {
             return;
         }
 
-        String videoId = extractVideoId(url);
+        YouTubeUrlParser.Result link = YouTubeUrlParser.parse(url);
 
-        if (videoId == null) {
+        if (link.getKind() != YouTubeUrlParser.Kind.VIDEO) {
+            Log.w(TAG, "Could not extract video ID from URL: " + url);
             showToast("Invalid YouTube URL. Please enter a valid YouTube video URL.");
             return;
         }
 
-        playVideoById(videoId);
+        // Links with a t= or start= timestamp begin playback there
+        playVideoById(link.getVideoId(), link.getStartSeconds());
     }
 
     /**
      * Play video by ID
      */
-    private void playVideoById(String videoId) {
+    private void playVideoById(String videoId, int startSeconds) {
         if (youTubePlayer != null) {
             youTubePlayerView.setVisibility(View.VISIBLE);
-            youTubePlayer.loadVideo(videoId, 0);
+            youTubePlayer.loadVideo(videoId, startSeconds);
             Log.d(TAG, "Loading video with ID: " + videoId);
             showToast("Loading video...");
         } else {
             showToast("Player not ready yet. Please try again in a moment.");
             // Store the video ID to play when ready
             pendingVideoId = videoId;
+            pendingStartSeconds = startSeconds;
         }
     }
 
     /**
-     * Extract video ID from various YouTube URL formats including embeds, short links and normal links
-     */
-    private String extractVideoId(String url) {
-        try {
-            Matcher matcher = pattern.matcher(url);
-
-            if (matcher.matches()) {
-                String videoId = matcher.group(4); // Group 4 contains the video ID
-                Log.d(TAG, "Extracted video ID: " + videoId + " from URL: " + url);
-                return videoId;
-            }
-
-            // Additional parsing for edge cases
-            if (url.contains("youtube.com/watch?v=")) {
-                String[] parts = url.split("v=");
-                if (parts.length > 1) {
-                    String videoId = parts[1].split("&")[0]; // Remove any additional parameters
-                    if (videoId.length() == 11) { // YouTube video IDs are 11 characters
-                        return videoId;
-                    }
-                }
-            } else if (url.contains("youtu.be/")) {
-                String[] parts = url.split("youtu.be/");
-                if (parts.length > 1) {
-                    String videoId = parts[1].split("\\?")[0]; // Remove any parameters
-                    if (videoId.length() == 11) {
-                        return videoId;
-                    }
-                }
-            }
-
-            Log.w(TAG, "Could not extract video ID from URL: " + url);
-            return null;
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error extracting video ID from URL: " + url, e);
-            return null;
-        }
-    }
-
-    /**
-     * Validate if the provided URL is a valid YouTube URL
+     * Validate if the provided URL is a valid YouTube video URL
      */
     private boolean isValidYouTubeUrl(String url) {
-        if (TextUtils.isEmpty(url)) {
-            return false;
-        }
-
-        Matcher matcher = pattern.matcher(url);
-        boolean isValid = matcher.matches();
+        boolean isValid = YouTubeUrlParser.parseVideoId(url) != null;
 
         Log.d(TAG, "URL validation for '" + url + "': " + isValid);
         return isValid;
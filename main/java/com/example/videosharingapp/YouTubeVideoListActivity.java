@@ -7,10 +7,14 @@ package com.example.videosharingapp;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.Editable;
 import android.text.TextUtils;
+import android.text.TextWatcher;
 import android.util.Log;
 import android.view.View;
+import android.widget.ArrayAdapter;
 import android.widget.Button;
+import android.widget.ListPopupWindow;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -19,25 +23,61 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.videosharingapp.adapters.PrefetchScrollListener;
 import com.example.videosharingapp.adapters.VideoAdapter;
+import com.example.videosharingapp.api.ChannelTypeahead;
+import com.example.videosharingapp.api.FeedAggregator;
+import com.example.videosharingapp.api.RequestHandle;
+import com.example.videosharingapp.api.VideoDetailsEnricher;
+import com.example.videosharingapp.api.VideoPage;
+import com.example.videosharingapp.api.VideoPager;
+import com.example.videosharingapp.api.YouTubeUrlParser;
 import com.example.videosharingapp.api.YouTubeApiManager;
+import com.example.videosharingapp.data.VideoRepository;
+import com.example.videosharingapp.models.YouTubeChannel;
 import com.example.videosharingapp.models.YouTubeVideo;
 import com.google.android.material.textfield.TextInputEditText;
+import com.google.android.material.textfield.TextInputLayout;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class YouTubeVideoListActivity extends AppCompatActivity implements VideoAdapter.OnVideoClickListener {
 
     private static final String TAG = "YouTubeVideoListActivity";
+    // Saved channels added to the feed per scroll, each one costs an API call
+    private static final int FEED_CHANNEL_PAGE_SIZE = 20;
 
+    private TextView titleText;
+    private CharSequence defaultTitle;
+    private TextInputLayout channelInputLayout;
     private TextInputEditText channelEditText;
-    private Button loadVideosButton, backButton;
+    private Button loadVideosButton, loadFeedButton, backButton;
     private RecyclerView videosRecyclerView;
     private ProgressBar progressBar;
     private TextView emptyStateText;
 
     private VideoAdapter videoAdapter;
+    // One instance for every page, so the enricher can tell it is already waiting on an ID
+    private final VideoDetailsEnricher.Listener detailsListener = videos -> videoAdapter.onDetailsAttached(videos);
     private YouTubeApiManager apiManager;
+    private VideoRepository videoRepository;
+    private VideoPager videoPager;
+    private FeedAggregator feedAggregator;
+    private RequestHandle savedChannelsRequest;
+    private CloudDatabaseService.ChannelCursor feedCursor;
+    private RequestHandle channelLookup;
+    // Incremented whenever the list is switched, so late results for an older list are dropped
+    private int listGeneration;
+    private CloudDatabaseService cloudService;
+    private PrefetchScrollListener prefetchScrollListener;
+    private String currentChannelId;
+    private ChannelTypeahead channelTypeahead;
+    private ListPopupWindow suggestionPopup;
+    private ArrayAdapter<ChannelTypeahead.Suggestion> suggestionAdapter;
+    // Set while the field is filled in from code, so it does not trigger a search
+    private boolean ignoreTextChange;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -48,11 +88,16 @@ public class YouTubeVideoListActivity extends AppCompatActivity implements Video
         setupRecyclerView();
         setupClickListeners();
         setupApiManager();
+        setupChannelTypeahead();
     }
 
     private void initializeViews() {
+        titleText = findViewById(R.id.titleText);
+        defaultTitle = titleText.getText();
+        channelInputLayout = findViewById(R.id.channelInputLayout);
         channelEditText = findViewById(R.id.channelEditText);
         loadVideosButton = findViewById(R.id.loadVideosButton);
+        loadFeedButton = findViewById(R.id.loadFeedButton);
         backButton = findViewById(R.id.backButton);
         videosRecyclerView = findViewById(R.id.videosRecyclerView);
         progressBar = findViewById(R.id.progressBar);
@@ -61,12 +106,25 @@ public class YouTubeVideoListActivity extends AppCompatActivity implements Video
 
     private void setupRecyclerView() {
         videoAdapter = new VideoAdapter(this);
-        videosRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        videosRecyclerView.setLayoutManager(layoutManager);
         videosRecyclerView.setAdapter(videoAdapter);
+
+        // Infinite scroll: append the buffered next page before the user reaches the bottom
+        prefetchScrollListener = new PrefetchScrollListener(layoutManager,
+                PrefetchScrollListener.DEFAULT_PREFETCH_DISTANCE, () -> {
+                    if (videoPager != null) {
+                        videoPager.onNearEnd();
+                    } else if (feedAggregator != null) {
+                        loadMoreFeedChannels();
+                    }
+                });
+        videosRecyclerView.addOnScrollListener(prefetchScrollListener);
     }
 
     private void setupClickListeners() {
         loadVideosButton.setOnClickListener(v -> loadChannelVideos());
+        loadFeedButton.setOnClickListener(v -> loadSavedChannelsFeed());
         backButton.setOnClickListener(v -> finish());
 
         // Set sample channel ID for testing
@@ -74,7 +132,76 @@ public class YouTubeVideoListActivity extends AppCompatActivity implements Video
     }
 
     private void setupApiManager() {
-        apiManager = new YouTubeApiManager();
+        apiManager = new YouTubeApiManager(this);
+        // Requests still running when the Activity is destroyed are cancelled
+        apiManager.bindToLifecycle(this);
+        videoRepository = new VideoRepository(this, apiManager);
+        cloudService = new CloudDatabaseService(this);
+    }
+
+    /**
+     * Suggest channels by name as the user types, so they don't need to paste a channel ID
+     */
+    private void setupChannelTypeahead() {
+        suggestionAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, new ArrayList<>());
+        suggestionPopup = new ListPopupWindow(this);
+        suggestionPopup.setAnchorView(channelInputLayout);
+        suggestionPopup.setAdapter(suggestionAdapter);
+        suggestionPopup.setOnItemClickListener((parent, view, position, id) -> {
+            ChannelTypeahead.Suggestion suggestion = suggestionAdapter.getItem(position);
+            suggestionPopup.dismiss();
+            channelTypeahead.cancel();
+
+            ignoreTextChange = true;
+            channelEditText.setText(suggestion.getChannelId());
+            ignoreTextChange = false;
+            loadChannelVideos();
+        });
+
+        channelTypeahead = apiManager.createChannelTypeahead(new ChannelTypeahead.Listener() {
+            @Override
+            public void onSuggestions(String query, List<ChannelTypeahead.Suggestion> suggestions) {
+                suggestionAdapter.clear();
+                suggestionAdapter.addAll(suggestions);
+                if (suggestions.isEmpty() || !channelEditText.hasFocus()) {
+                    suggestionPopup.dismiss();
+                } else {
+                    suggestionPopup.show();
+                }
+            }
+
+            @Override
+            public void onFailure(String query, String error) {
+                Log.w(TAG, "Channel suggestions failed for \"" + query + "\": " + error);
+                suggestionPopup.dismiss();
+            }
+        });
+
+        channelEditText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                if (ignoreTextChange) {
+                    return;
+                }
+
+                String text = s.toString().trim();
+                // IDs, handles and URLs are loaded directly, only names are worth a search
+                if (text.indexOf('/') >= 0 || YouTubeUrlParser.parse(text).isChannel()) {
+                    channelTypeahead.cancel();
+                    suggestionPopup.dismiss();
+                    return;
+                }
+                channelTypeahead.onQueryChanged(text);
+            }
+        });
     }
 
     private void loadChannelVideos() {
@@ -85,20 +212,58 @@ public class YouTubeVideoListActivity extends AppCompatActivity implements Video
             return;
         }
 
-        String channelId = extractChannelId(channelInput);
-        if (channelId == null) {
+        if (!YouTubeUrlParser.parse(channelInput).isChannel()) {
             Toast.makeText(this, "Invalid channel ID or URL", Toast.LENGTH_SHORT).show();
             return;
         }
 
+        stopLoading();
         showLoading(true);
+
+        // Handles and custom URLs are resolved through the alias table, IDs come back at once
+        channelLookup = apiManager.resolveChannelId(channelInput, new YouTubeApiManager.ChannelIdCallback() {
+            @Override
+            public void onSuccess(String channelId) {
+                channelLookup = null;
+                loadChannelVideos(channelId);
+            }
+
+            @Override
+            public void onFailure(String error) {
+                channelLookup = null;
+                Log.w(TAG, "Could not resolve channel " + channelInput + ": " + error);
+                showLoading(false);
+                String message = error.startsWith(YouTubeApiManager.CHANNEL_NOT_FOUND)
+                        ? "Invalid channel ID or URL" : "Could not look up channel: " + error;
+                Toast.makeText(YouTubeVideoListActivity.this, message, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private void loadChannelVideos(String channelId) {
         Log.d(TAG, "Loading videos for channel: " + channelId);
+        currentChannelId = channelId;
+        showChannelTitle(channelId);
+
+        // Stored videos render straight away, the network result replaces them when it arrives
+        videoPager = videoRepository.loadChannelVideos(channelId, new VideoRepository.Listener() {
+            @Override
+            public void onStoredVideos(List<YouTubeVideo> videos) {
+                runOnUiThread(() -> {
+                    showLoading(false);
+                    showEmptyState(false);
+                    videoAdapter.setVideos(videos);
+                    videosRecyclerView.setVisibility(View.VISIBLE);
+                    enrichVideos(videos);
+                    Log.d(TAG, "Showing " + videos.size() + " stored videos while refreshing");
+                });
+            }
 
-        apiManager.getChannelVideos(channelId, new YouTubeApiManager.VideosCallback() {
             @Override
-            public void onSuccess(List<YouTubeVideo> videos) {
+            public void onFirstPage(List<YouTubeVideo> videos, boolean hasMore, boolean fromCache) {
                 runOnUiThread(() -> {
                     showLoading(false);
+                    prefetchScrollListener.reset();
 
                     if (videos.isEmpty()) {
                         showEmptyState(true);
@@ -107,6 +272,7 @@ public class YouTubeVideoListActivity extends AppCompatActivity implements Video
                         showEmptyState(false);
                         videoAdapter.setVideos(videos);
                         videosRecyclerView.setVisibility(View.VISIBLE);
+                        enrichVideos(videos);
 
                         Log.d(TAG, "Loaded " + videos.size() + " videos successfully");
                         Toast.makeText(YouTubeVideoListActivity.this, "Loaded " + videos.size() + " videos", Toast.LENGTH_SHORT).show();
@@ -115,10 +281,41 @@ public class YouTubeVideoListActivity extends AppCompatActivity implements Video
             }
 
             @Override
-            public void onFailure(String error) {
+            public void onHeadRefreshed(List<YouTubeVideo> newVideos, VideoPage page) {
                 runOnUiThread(() -> {
-                    showLoading(false);
-                    showEmptyState(true);
+                    if (newVideos.isEmpty()) {
+                        return;
+                    }
+                    showEmptyState(false);
+                    videosRecyclerView.setVisibility(View.VISIBLE);
+                    videoAdapter.insertVideos(0, newVideos);
+                    enrichVideos(newVideos);
+                    Log.d(TAG, "Refresh added " + newVideos.size() + " new videos at the top");
+                });
+            }
+
+            @Override
+            public void onPageAppended(List<YouTubeVideo> videos, boolean hasMore) {
+                runOnUiThread(() -> {
+                    videoAdapter.addVideos(videos);
+                    enrichVideos(videos);
+                    Log.d(TAG, "Appended " + videos.size() + " more videos, total " + videoAdapter.getItemCount());
+                });
+            }
+
+            @Override
+            public void onFailure(String error, boolean firstPage) {
+                runOnUiThread(() -> {
+                    if (firstPage) {
+                        showLoading(false);
+                        if (videoAdapter.getItemCount() > 0) {
+                            // Keep the stored videos on screen, e.g. when offline
+                            Log.w(TAG, "Refresh failed, showing stored videos: " + error);
+                            Toast.makeText(YouTubeVideoListActivity.this, "Showing saved videos, could not refresh", Toast.LENGTH_SHORT).show();
+                            return;
+                        }
+                        showEmptyState(true);
+                    }
 
                     Log.e(TAG, "Failed to load videos: " + error);
                     Toast.makeText(YouTubeVideoListActivity.this, "Failed to load videos: " + error, Toast.LENGTH_LONG).show();
@@ -128,40 +325,147 @@ public class YouTubeVideoListActivity extends AppCompatActivity implements Video
     }
 
     /**
-     * Extract channel ID
+     * Show the channel's name as the screen title, from the local catalog when it has been seen before
      */
-    private String extractChannelId(String input) {
-        if (input == null || input.trim().isEmpty()) {
-            return null;
-        }
+    private void showChannelTitle(String channelId) {
+        videoRepository.getChannel(channelId, new YouTubeApiManager.ChannelInfoCallback() {
+            @Override
+            public void onSuccess(YouTubeChannel channel) {
+                if (isDestroyed() || !channelId.equals(currentChannelId)) {
+                    return;
+                }
+                if (channel.getSnippet() != null && !TextUtils.isEmpty(channel.getSnippet().getTitle())) {
+                    titleText.setText(channel.getSnippet().getTitle());
+                }
+            }
+
+            @Override
+            public void onFailure(String error) {
+                Log.w(TAG, "Could not load channel info for " + channelId + ": " + error);
+            }
+        });
+    }
+
+    /**
+     * Fill in duration and view counts for rows already on screen, batched into videos.list calls
+     */
+    private void enrichVideos(List<YouTubeVideo> videos) {
+        apiManager.enrichVideos(videos, detailsListener);
+    }
+
+    /**
+     * Show one timeline merged from the newest saved channels. Older channels are added a page
+     * at a time as the user scrolls to the end of the feed.
+     */
+    private void loadSavedChannelsFeed() {
+        stopLoading();
+        showLoading(true);
 
-        input = input.trim();
+        feedCursor = new CloudDatabaseService.ChannelCursor(FEED_CHANNEL_PAGE_SIZE);
+        startFeed();
+        loadMoreFeedChannels();
+    }
 
-        // If it's already a channel ID (24 characters starting with UC)
-        if (input.matches("UC[a-zA-Z0-9_-]{22}")) {
-            return input;
+    /**
+     * Read the next page of saved channels and add them to the feed, once the previous page
+     * has finished loading
+     */
+    private void loadMoreFeedChannels() {
+        if (feedCursor == null || !feedCursor.hasMore() || feedCursor.isLoading() || feedAggregator.isLoading()) {
+            return;
         }
 
-        // URL Regex
-        try {
-            if (input.contains("youtube.com/channel/")) {
-                String[] parts = input.split("youtube.com/channel/");
-                if (parts.length > 1) {
-                    String channelId = parts[1].split("/")[0].split("\\?")[0];
-                    if (channelId.matches("UC[a-zA-Z0-9_-]{22}")) {
-                        return channelId;
+        int generation = listGeneration;
+        savedChannelsRequest = cloudService.readChannelPage(feedCursor, new CloudDatabaseService.ChannelPageCallback() {
+            @Override
+            public void onSuccess(List<Map<String, Object>> channels, boolean hasMore) {
+                if (generation != listGeneration || isFinishing() || isDestroyed()) {
+                    return;
+                }
+                List<String> channelIds = new ArrayList<>();
+                for (Map<String, Object> channel : channels) {
+                    Object channelId = channel.get("channelId");
+                    if (channelId instanceof String && !((String) channelId).isEmpty()) {
+                        channelIds.add((String) channelId);
                     }
                 }
-            } else if (input.contains("youtube.com/c/") || input.contains("youtube.com/user/") || input.contains("youtube.com/@")) {
-                // Return a sample channel ID for testing
-                Log.w(TAG, "Custom URL detected, using sample channel ID for testing");
-                return "UCRV15pO_LtX1unL71LQyhPw"; // OP Channel
+                feedAggregator.addChannels(channelIds);
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error extracting channel ID from: " + input, e);
-        }
 
-        return null;
+            @Override
+            public void onFailure(Exception e) {
+                if (generation != listGeneration || isFinishing() || isDestroyed()) {
+                    return;
+                }
+                Log.e(TAG, "Failed to read saved channels", e);
+                showLoading(false);
+                if (videoAdapter.getItemCount() == 0) {
+                    showEmptyState(true);
+                }
+                // Let the next scroll try this page again
+                prefetchScrollListener.reset();
+                Toast.makeText(YouTubeVideoListActivity.this, "Failed to read saved channels", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private void startFeed() {
+        // Rows are inserted as each channel answers, a slow channel only delays its own videos
+        feedAggregator = new FeedAggregator(apiManager);
+        feedAggregator.setListener(new FeedAggregator.Listener() {
+            @Override
+            public void onVideosInserted(int position, List<YouTubeVideo> videos) {
+                showLoading(false);
+                showEmptyState(false);
+                videosRecyclerView.setVisibility(View.VISIBLE);
+                videoAdapter.insertVideos(position, videos);
+                enrichVideos(videos);
+            }
+
+            @Override
+            public void onChannelFailed(String channelId, String error) {
+                Log.w(TAG, "Feed skipped channel " + channelId + ": " + error);
+            }
+
+            @Override
+            public void onComplete(int loadedChannels, int failedChannels) {
+                showLoading(false);
+                // A page of channels may add no rows, so the next scroll must still fire
+                prefetchScrollListener.reset();
+                if (videoAdapter.getItemCount() == 0) {
+                    showEmptyState(true);
+                }
+                Toast.makeText(YouTubeVideoListActivity.this, "Loaded feed from " + loadedChannels + " channels"
+                        + (failedChannels > 0 ? " (" + failedChannels + " failed)" : ""), Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    /**
+     * Cancel whatever list is loading and clear it
+     */
+    private void stopLoading() {
+        listGeneration++;
+        if (channelLookup != null) {
+            channelLookup.cancel();
+            channelLookup = null;
+        }
+        if (savedChannelsRequest != null) {
+            savedChannelsRequest.cancel();
+            savedChannelsRequest = null;
+        }
+        if (videoPager != null) {
+            videoPager.cancel();
+            videoPager = null;
+        }
+        if (feedAggregator != null) {
+            feedAggregator.cancel();
+            feedAggregator = null;
+        }
+        feedCursor = null;
+        currentChannelId = null;
+        titleText.setText(defaultTitle);
+        videoAdapter.setVideos(new ArrayList<>());
     }
 
     private void showLoading(boolean isLoading) {
@@ -183,6 +487,22 @@ public class YouTubeVideoListActivity extends AppCompatActivity implements Video
         }
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        channelTypeahead.cancel();
+        suggestionPopup.dismiss();
+        if (savedChannelsRequest != null) {
+            savedChannelsRequest.cancel();
+        }
+        if (channelLookup != null) {
+            channelLookup.cancel();
+        }
+        if (feedAggregator != null) {
+            feedAggregator.cancel();
+        }
+    }
+
     @Override
     public void onVideoClick(YouTubeVideo video) {
         String videoId = video.getVideoId();
@@ -0,0 +1,58 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Scroll listener that fires once the last visible row is within a configurable
+ * number of rows from the end of the list, so the next page can be shown in time
+ */
+public class PrefetchScrollListener extends RecyclerView.OnScrollListener {
+
+    public static final int DEFAULT_PREFETCH_DISTANCE = 5;
+
+    public interface OnNearEndListener {
+        void onNearEnd();
+    }
+
+    private final LinearLayoutManager layoutManager;
+    private final int prefetchDistance;
+    private final OnNearEndListener listener;
+    // Item count when we last fired, so each new page only triggers once
+    private int lastTriggeredCount = -1;
+
+    public PrefetchScrollListener(LinearLayoutManager layoutManager, int prefetchDistance,
+                                  OnNearEndListener listener) {
+        this.layoutManager = layoutManager;
+        this.prefetchDistance = prefetchDistance;
+        this.listener = listener;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy <= 0) {
+            return;
+        }
+
+        int itemCount = layoutManager.getItemCount();
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (itemCount > 0 && itemCount != lastTriggeredCount
+                && lastVisible >= itemCount - 1 - prefetchDistance) {
+            lastTriggeredCount = itemCount;
+            listener.onNearEnd();
+        }
+    }
+
+    /**
+     * Call when the list is replaced so the first page can trigger again
+     */
+    public void reset() {
+        lastTriggeredCount = -1;
+    }
+}
@@ -16,16 +16,22 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.videosharingapp.R;
 import com.example.videosharingapp.models.YouTubeVideo;
+import com.example.videosharingapp.models.YouTubeVideoDetails;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHolder> {
 
+    // Partial rebind payload: only the duration and statistics line changed
+    private static final Object PAYLOAD_DETAILS = new Object();
+
     private List<YouTubeVideo> videos;
     private OnVideoClickListener listener;
 
@@ -39,10 +45,40 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
     }
 
     public void setVideos(List<YouTubeVideo> videos) {
-        this.videos = videos;
+        // Copy so appending pages never modifies a list owned by the cache
+        this.videos = new ArrayList<>(videos);
         notifyDataSetChanged();
     }
 
+    /**
+     * Append a page of videos to the end of the list without rebinding existing rows
+     */
+    public void addVideos(List<YouTubeVideo> moreVideos) {
+        int start = videos.size();
+        videos.addAll(moreVideos);
+        notifyItemRangeInserted(start, moreVideos.size());
+    }
+
+    /**
+     * Insert videos at a position, e.g. when a merged feed receives another channel's videos
+     */
+    public void insertVideos(int position, List<YouTubeVideo> newVideos) {
+        videos.addAll(position, newVideos);
+        notifyItemRangeInserted(position, newVideos.size());
+    }
+
+    /**
+     * Refresh the rows of videos whose details were just attached, rebinding only the details line
+     */
+    public void onDetailsAttached(List<YouTubeVideo> updated) {
+        Set<YouTubeVideo> updatedVideos = new HashSet<>(updated);
+        for (int position = 0; position < videos.size(); position++) {
+            if (updatedVideos.contains(videos.get(position))) {
+                notifyItemChanged(position, PAYLOAD_DETAILS);
+            }
+        }
+    }
+
     @NonNull
     @Override
     public VideoViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -57,6 +93,15 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
         holder.bind(video);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull VideoViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_DETAILS)) {
+            holder.bindDetails(videos.get(position));
+        } else {
+            super.onBindViewHolder(holder, position, payloads);
+        }
+    }
+
     @Override
     public int getItemCount() {
         return videos.size();
@@ -67,6 +112,7 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
         private TextView videoTitle;
         private TextView channelName;
         private TextView publishDate;
+        private TextView videoDetails;
 
         public VideoViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -74,6 +120,7 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
             videoTitle = itemView.findViewById(R.id.videoTitle);
             channelName = itemView.findViewById(R.id.channelName);
             publishDate = itemView.findViewById(R.id.publishDate);
+            videoDetails = itemView.findViewById(R.id.videoDetails);
 
             // Set up click listener
             itemView.setOnClickListener(v -> {
@@ -91,12 +138,53 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
             // Format and display publish date
             String formattedDate = formatPublishDate(video.getSnippet().getPublishedAt());
             publishDate.setText(formattedDate);
+            bindDetails(video);
 
             // Shows a placeholder for thumbnail
             // In a real production, we would use an image loading library
             videoThumbnail.setImageResource(R.drawable.ic_video_placeholder);
         }
 
+        /**
+         * Duration and view count, shown once videos.list details are attached
+         */
+        void bindDetails(YouTubeVideo video) {
+            YouTubeVideoDetails details = video.getDetails();
+            if (details == null) {
+                videoDetails.setVisibility(View.GONE);
+                return;
+            }
+
+            StringBuilder text = new StringBuilder();
+            String duration = details.getFormattedDuration();
+            if (duration != null) {
+                text.append(duration);
+            }
+            if (details.getStatistics() != null && details.getStatistics().getViewCount() != null) {
+                if (text.length() > 0) {
+                    text.append(" \u2022 ");
+                }
+                text.append(formatViewCount(details.getStatistics().getViewCount()));
+            }
+
+            videoDetails.setText(text);
+            videoDetails.setVisibility(text.length() > 0 ? View.VISIBLE : View.GONE);
+        }
+
+        private String formatViewCount(String viewCount) {
+            try {
+                long views = Long.parseLong(viewCount);
+                if (views >= 1_000_000) {
+                    return String.format(Locale.US, "%.1fM views", views / 1_000_000.0);
+                } else if (views >= 1_000) {
+                    return String.format(Locale.US, "%.1fK views", views / 1_000.0);
+                }
+                return views + " views";
+            } catch (NumberFormatException e) {
+                return viewCount + " views";
+            }
+        }
+
         private String formatPublishDate(String publishedAt) {
             try {
                 // YouTube API returns dates in ISO 8601 format
@@ -0,0 +1,187 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.logging.HttpLoggingInterceptor;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Process-wide owner of the HTTP client, Retrofit instance and API service.
+ *
+ * Every YouTubeApiManager gets its service from here, so all screens share one connection
+ * pool and dispatcher and a warm TLS/HTTP2 connection to googleapis.com is reused across
+ * activities. Managers with a different cache policy get a client derived with newBuilder(),
+ * which still shares the same pool and dispatcher.
+ */
+public class ApiClientRegistry {
+
+    private static final String TAG = "ApiClientRegistry";
+    private static final String HTTP_CACHE_DIR = "youtube_http_cache";
+
+    // The scheduler runs 4 calls at once, plus room for hedged requests and pre-warming
+    private static final int MAX_REQUESTS = 8;
+    private static final int MAX_REQUESTS_PER_HOST = 6;
+    private static final int MAX_IDLE_CONNECTIONS = 4;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    private static ApiClientRegistry instance;
+
+    private final OkHttpClient baseClient;
+    private final Cache httpCache;
+    private final ResponseCachePolicy defaultCachePolicy = new ResponseCachePolicy();
+    // OkHttp requires a single Cache instance per directory, so services are kept per policy
+    private final Map<ResponseCachePolicy, YouTubeApiService> cachedServices = new IdentityHashMap<>();
+    private YouTubeApiService uncachedService;
+    private boolean prewarmed;
+
+    private ApiClientRegistry(Context context) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+        // Request lines only, and only in debuggable builds. BODY logging would buffer every
+        // response in memory before the streaming converter sees it.
+        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
+        loggingInterceptor.setLevel(isDebuggable(context)
+                ? HttpLoggingInterceptor.Level.BASIC : HttpLoggingInterceptor.Level.NONE);
+
+        if (isDebuggable(context)) {
+            String mismatch = FieldProjection.verifyAll();
+            if (mismatch != null) {
+                Log.e(TAG, "Response field masks are out of sync: " + mismatch);
+            }
+        }
+
+        baseClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .addInterceptor(new FieldMaskInterceptor())
+                .addInterceptor(loggingInterceptor)
+                .connectTimeout(30, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .writeTimeout(30, TimeUnit.SECONDS)
+                .eventListenerFactory(MetricsEventListener.FACTORY)
+                .build();
+
+        httpCache = context != null
+                ? new Cache(new File(context.getApplicationContext().getCacheDir(), HTTP_CACHE_DIR),
+                        defaultCachePolicy.getMaxSizeBytes())
+                : null;
+    }
+
+    /**
+     * Get the registry, creating it on first use. Pass a context so responses can be cached on disk.
+     */
+    public static synchronized ApiClientRegistry getInstance(Context context) {
+        if (instance == null) {
+            instance = new ApiClientRegistry(context);
+        }
+        return instance;
+    }
+
+    public ResponseCachePolicy getDefaultCachePolicy() {
+        return defaultCachePolicy;
+    }
+
+    /**
+     * Service whose responses are stored in the shared disk cache under the given policy
+     */
+    public synchronized YouTubeApiService getService(ResponseCachePolicy cachePolicy) {
+        if (httpCache == null || cachePolicy == null) {
+            return getUncachedService();
+        }
+
+        YouTubeApiService service = cachedServices.get(cachePolicy);
+        if (service == null) {
+            // Conditional requests: stale entries are revalidated by ETag and 304s served from disk
+            OkHttpClient client = baseClient.newBuilder()
+                    .cache(httpCache)
+                    .addNetworkInterceptor(new EtagCacheInterceptor(cachePolicy))
+                    .build();
+            service = createService(client);
+            cachedServices.put(cachePolicy, service);
+        }
+        return service;
+    }
+
+    public synchronized YouTubeApiService getUncachedService() {
+        if (uncachedService == null) {
+            uncachedService = createService(baseClient);
+        }
+        return uncachedService;
+    }
+
+    /**
+     * Open a connection to the API host ahead of the first real request, so the first list
+     * load skips DNS lookup and the TLS handshake. The request carries no API key and costs no quota.
+     */
+    public void prewarm() {
+        synchronized (this) {
+            if (prewarmed) {
+                return;
+            }
+            prewarmed = true;
+        }
+
+        long startTime = System.currentTimeMillis();
+        Request request = new Request.Builder()
+                .url(YouTubeApiService.BASE_URL)
+                .head()
+                .build();
+
+        baseClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+                Log.d(TAG, "Connection pre-warmed in " + (System.currentTimeMillis() - startTime) + "ms");
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                synchronized (ApiClientRegistry.this) {
+                    prewarmed = false;
+                }
+                Log.w(TAG, "Connection pre-warm failed: " + e.getMessage());
+            }
+        });
+    }
+
+    private static boolean isDebuggable(Context context) {
+        return context != null
+                && (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    private static YouTubeApiService createService(OkHttpClient client) {
+        Retrofit retrofit = new Retrofit.Builder()
+                .baseUrl(YouTubeApiService.BASE_URL)
+                .client(client)
+                // Streaming decoder for the list responses, Gson for anything else
+                .addConverterFactory(new TimingConverterFactory(new YouTubeStreamingConverterFactory()))
+                .addConverterFactory(new TimingConverterFactory(GsonConverterFactory.create()))
+                .build();
+
+        return retrofit.create(YouTubeApiService.class);
+    }
+}
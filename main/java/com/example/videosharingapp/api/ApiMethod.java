@@ -0,0 +1,35 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+/**
+ * The YouTubeApiService methods and their YouTube Data API quota cost in units
+ */
+public enum ApiMethod {
+    GET_CHANNEL_INFO("channels", 1),
+    GET_CHANNEL_INFO_BY_USERNAME("channels", 1),
+    GET_CHANNEL_INFO_BY_HANDLE("channels", 1),
+    SEARCH_CHANNELS("search", 100),
+    GET_CHANNEL_VIDEOS("search", 100),
+    GET_PLAYLIST_ITEMS("playlistItems", 1),
+    GET_VIDEO_DETAILS("videos", 1);
+
+    private final String endpoint;
+    private final int cost;
+
+    ApiMethod(String endpoint, int cost) {
+        this.endpoint = endpoint;
+        this.cost = cost;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+}
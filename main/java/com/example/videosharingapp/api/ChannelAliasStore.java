@@ -0,0 +1,169 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent table mapping channel handles, usernames and custom URL names to channel IDs,
+ * so a link that was resolved once never needs the network again. Names the API could not
+ * resolve are stored too (with a shorter lifetime), so a bad link is not looked up on every tap.
+ * An in-memory LRU sits in front of the table so repeated lookups avoid disk reads as well.
+ */
+public class ChannelAliasStore {
+
+    private static final String TAG = "ChannelAliasStore";
+
+    private static final String DATABASE_NAME = "channel_aliases.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE_ALIASES = "channel_aliases";
+    private static final String COLUMN_ALIAS = "alias";
+    private static final String COLUMN_CHANNEL_ID = "channel_id";
+    private static final String COLUMN_RESOLVED_AT = "resolved_at";
+
+    private static final int MEMORY_ENTRIES = 128;
+
+    // Handles can be changed or released, so even found entries are checked again eventually
+    public static final long FOUND_TTL_MILLIS = TimeUnit.DAYS.toMillis(30);
+    public static final long NOT_FOUND_TTL_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static ChannelAliasStore instance;
+
+    private final DbHelper dbHelper;
+    private final LruCache<String, Entry> memoryCache = new LruCache<>(MEMORY_ENTRIES);
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * A resolved alias. The channel ID is null when the API reported no such channel.
+     */
+    public static class Entry {
+        private final String channelId;
+        private final long resolvedAtMillis;
+
+        Entry(String channelId, long resolvedAtMillis) {
+            this.channelId = channelId;
+            this.resolvedAtMillis = resolvedAtMillis;
+        }
+
+        public String getChannelId() { return channelId; }
+        public long getResolvedAtMillis() { return resolvedAtMillis; }
+
+        public boolean isNotFound() {
+            return channelId == null;
+        }
+
+        public boolean isExpired() {
+            long ttl = channelId != null ? FOUND_TTL_MILLIS : NOT_FOUND_TTL_MILLIS;
+            return System.currentTimeMillis() - resolvedAtMillis > ttl;
+        }
+    }
+
+    public interface LoadCallback {
+        void onLoaded(Entry entry);
+    }
+
+    private static class DbHelper extends SQLiteOpenHelper {
+
+        DbHelper(Context context) {
+            super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + TABLE_ALIASES + " ("
+                    + COLUMN_ALIAS + " TEXT PRIMARY KEY, "
+                    + COLUMN_CHANNEL_ID + " TEXT, "
+                    + COLUMN_RESOLVED_AT + " INTEGER NOT NULL)");
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_ALIASES);
+            onCreate(db);
+        }
+    }
+
+    private ChannelAliasStore(Context context) {
+        dbHelper = new DbHelper(context);
+    }
+
+    public static synchronized ChannelAliasStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new ChannelAliasStore(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Look up an alias in memory, falling back to the table. The callback runs on the
+     * disk thread when the memory tier misses, with null if the alias was never resolved.
+     */
+    public void lookup(String alias, LoadCallback callback) {
+        Entry cached = memoryCache.get(alias);
+        if (cached != null) {
+            callback.onLoaded(cached);
+            return;
+        }
+
+        diskExecutor.execute(() -> {
+            Entry entry = readEntry(alias);
+            if (entry != null) {
+                memoryCache.put(alias, entry);
+            }
+            callback.onLoaded(entry);
+        });
+    }
+
+    public void putFound(String alias, String channelId) {
+        store(alias, channelId);
+    }
+
+    public void putNotFound(String alias) {
+        store(alias, null);
+    }
+
+    private void store(String alias, String channelId) {
+        Entry entry = new Entry(channelId, System.currentTimeMillis());
+        memoryCache.put(alias, entry);
+        diskExecutor.execute(() -> {
+            ContentValues values = new ContentValues();
+            values.put(COLUMN_ALIAS, alias);
+            values.put(COLUMN_CHANNEL_ID, channelId);
+            values.put(COLUMN_RESOLVED_AT, entry.getResolvedAtMillis());
+            try {
+                dbHelper.getWritableDatabase().insertWithOnConflict(TABLE_ALIASES, null, values,
+                        SQLiteDatabase.CONFLICT_REPLACE);
+            } catch (Exception e) {
+                Log.w(TAG, "Could not save alias " + alias, e);
+            }
+        });
+    }
+
+    private Entry readEntry(String alias) {
+        try (Cursor cursor = dbHelper.getReadableDatabase().query(TABLE_ALIASES,
+                new String[]{COLUMN_CHANNEL_ID, COLUMN_RESOLVED_AT},
+                COLUMN_ALIAS + " = ?", new String[]{alias}, null, null, null)) {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            return new Entry(cursor.isNull(0) ? null : cursor.getString(0), cursor.getLong(1));
+        } catch (Exception e) {
+            Log.w(TAG, "Could not read alias " + alias, e);
+            return null;
+        }
+    }
+}
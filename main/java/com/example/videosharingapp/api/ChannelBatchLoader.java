@@ -0,0 +1,142 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.videosharingapp.models.YouTubeChannel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects channel lookups that arrive within a short window and sends them as one
+ * request to the channels endpoint, which accepts up to 50 comma-separated IDs.
+ * Results are split back to each caller, with "Channel not found" for IDs the API did not return.
+ */
+public class ChannelBatchLoader {
+
+    private static final String TAG = "ChannelBatchLoader";
+
+    public static final int MAX_BATCH_SIZE = 50;
+    public static final long DEFAULT_WINDOW_MILLIS = 20;
+
+    /**
+     * Performs the actual multi-ID request for a batch
+     */
+    public interface BatchRequester {
+        void requestChannels(List<String> channelIds, RequestScheduler.Priority priority, BatchCallback callback);
+    }
+
+    public interface BatchCallback {
+        void onSuccess(List<YouTubeChannel> channels);
+        void onFailure(String error);
+    }
+
+    private final BatchRequester requester;
+    private final long windowMillis;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushTask = this::flush;
+
+    // Pending callbacks by channel ID, in the order they were first requested
+    private LinkedHashMap<String, List<YouTubeApiManager.ChannelInfoCallback>> pending = new LinkedHashMap<>();
+    // Highest priority of any caller in the pending batch
+    private RequestScheduler.Priority pendingPriority;
+
+    public ChannelBatchLoader(BatchRequester requester) {
+        this(requester, DEFAULT_WINDOW_MILLIS);
+    }
+
+    public ChannelBatchLoader(BatchRequester requester, long windowMillis) {
+        this.requester = requester;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Queue a channel lookup. The batch is sent when the window closes or 50 IDs are queued.
+     */
+    public void load(String channelId, RequestScheduler.Priority priority,
+                     YouTubeApiManager.ChannelInfoCallback callback) {
+        boolean flushNow;
+        synchronized (this) {
+            if (pendingPriority == null || priority.ordinal() < pendingPriority.ordinal()) {
+                pendingPriority = priority;
+            }
+
+            List<YouTubeApiManager.ChannelInfoCallback> callbacks = pending.get(channelId);
+            if (callbacks == null) {
+                callbacks = new ArrayList<>();
+                pending.put(channelId, callbacks);
+            }
+            callbacks.add(callback);
+
+            flushNow = pending.size() >= MAX_BATCH_SIZE;
+            if (!flushNow && pending.size() == 1) {
+                handler.postDelayed(flushTask, windowMillis);
+            }
+        }
+
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    /**
+     * Send everything queued so far
+     */
+    public void flush() {
+        Map<String, List<YouTubeApiManager.ChannelInfoCallback>> batch;
+        RequestScheduler.Priority priority;
+        synchronized (this) {
+            handler.removeCallbacks(flushTask);
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            priority = pendingPriority;
+            pending = new LinkedHashMap<>();
+            pendingPriority = null;
+        }
+
+        List<String> channelIds = new ArrayList<>(batch.keySet());
+        Log.d(TAG, "Sending batched channel lookup for " + channelIds.size() + " IDs");
+
+        requester.requestChannels(channelIds, priority, new BatchCallback() {
+            @Override
+            public void onSuccess(List<YouTubeChannel> channels) {
+                Map<String, YouTubeChannel> byId = new HashMap<>();
+                for (YouTubeChannel channel : channels) {
+                    byId.put(channel.getId(), channel);
+                }
+
+                for (Map.Entry<String, List<YouTubeApiManager.ChannelInfoCallback>> entry : batch.entrySet()) {
+                    YouTubeChannel channel = byId.get(entry.getKey());
+                    for (YouTubeApiManager.ChannelInfoCallback callback : entry.getValue()) {
+                        if (channel != null) {
+                            callback.onSuccess(channel);
+                        } else {
+                            callback.onFailure("Channel not found");
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(String error) {
+                for (List<YouTubeApiManager.ChannelInfoCallback> callbacks : batch.values()) {
+                    for (YouTubeApiManager.ChannelInfoCallback callback : callbacks) {
+                        callback.onFailure(error);
+                    }
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,295 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.example.videosharingapp.models.YouTubeChannel;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache for channel info and the first page of channel videos, keyed by channel ID.
+ * The first tier is an in-memory LRU, the second is a JSON file per entry in the app cache
+ * directory so data survives process death. Entries past their TTL are still returned
+ * (marked as expired) so callers can serve them while a refresh runs in the background.
+ */
+public class ChannelDataCache {
+
+    private static final String TAG = "ChannelDataCache";
+    private static final String CACHE_DIR = "youtube_data_cache";
+    private static final int MEMORY_ENTRIES = 64;
+    // Disk tier limits, enforced after every write by deleting the least recently written files
+    private static final long MAX_DISK_BYTES = 5 * 1024 * 1024;
+    private static final long MAX_DISK_AGE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    public static final long DEFAULT_CHANNEL_TTL_MILLIS = TimeUnit.HOURS.toMillis(6);
+    public static final long DEFAULT_VIDEOS_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static ChannelDataCache instance;
+
+    private final LruCache<String, Entry<?>> memoryCache;
+    private final File diskDir;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final Gson gson = new Gson();
+
+    private long channelTtlMillis = DEFAULT_CHANNEL_TTL_MILLIS;
+    private long videosTtlMillis = DEFAULT_VIDEOS_TTL_MILLIS;
+
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong diskMisses = new AtomicLong();
+    private final AtomicLong staleServes = new AtomicLong();
+
+    /**
+     * A cached value with the time it was stored and a fingerprint used to detect changes
+     */
+    public static class Entry<T> {
+        private final T value;
+        private final long savedAtMillis;
+        private final String fingerprint;
+        private final long ttlMillis;
+
+        Entry(T value, long savedAtMillis, String fingerprint, long ttlMillis) {
+            this.value = value;
+            this.savedAtMillis = savedAtMillis;
+            this.fingerprint = fingerprint;
+            this.ttlMillis = ttlMillis;
+        }
+
+        public T getValue() { return value; }
+        public long getSavedAtMillis() { return savedAtMillis; }
+        public String getFingerprint() { return fingerprint; }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() - savedAtMillis > ttlMillis;
+        }
+    }
+
+    /**
+     * Snapshot of the cache counters
+     */
+    public static class Stats {
+        private final long memoryHits;
+        private final long memoryMisses;
+        private final long evictions;
+        private final long diskHits;
+        private final long diskMisses;
+        private final long staleServes;
+
+        Stats(long memoryHits, long memoryMisses, long evictions,
+              long diskHits, long diskMisses, long staleServes) {
+            this.memoryHits = memoryHits;
+            this.memoryMisses = memoryMisses;
+            this.evictions = evictions;
+            this.diskHits = diskHits;
+            this.diskMisses = diskMisses;
+            this.staleServes = staleServes;
+        }
+
+        public long getMemoryHits() { return memoryHits; }
+        public long getMemoryMisses() { return memoryMisses; }
+        public long getEvictions() { return evictions; }
+        public long getDiskHits() { return diskHits; }
+        public long getDiskMisses() { return diskMisses; }
+        public long getStaleServes() { return staleServes; }
+
+        @Override
+        public String toString() {
+            return "memoryHits=" + memoryHits + ", memoryMisses=" + memoryMisses
+                    + ", evictions=" + evictions + ", diskHits=" + diskHits
+                    + ", diskMisses=" + diskMisses + ", staleServes=" + staleServes;
+        }
+    }
+
+    public interface LoadCallback<T> {
+        void onLoaded(Entry<T> entry);
+    }
+
+    private ChannelDataCache(Context context) {
+        diskDir = new File(context.getApplicationContext().getCacheDir(), CACHE_DIR);
+        if (!diskDir.exists() && !diskDir.mkdirs()) {
+            Log.w(TAG, "Could not create cache directory: " + diskDir);
+        }
+        memoryCache = new LruCache<>(MEMORY_ENTRIES);
+    }
+
+    public static synchronized ChannelDataCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new ChannelDataCache(context);
+        }
+        return instance;
+    }
+
+    public void setTtl(long channelTtlMillis, long videosTtlMillis) {
+        this.channelTtlMillis = channelTtlMillis;
+        this.videosTtlMillis = videosTtlMillis;
+    }
+
+    /**
+     * Look up channel info in memory, falling back to disk. The callback runs on the
+     * disk thread when the memory tier misses, with null if neither tier has the entry.
+     */
+    public void getChannel(String channelId, LoadCallback<YouTubeChannel> callback) {
+        load(channelKey(channelId), YouTubeChannel.class, channelTtlMillis, callback);
+    }
+
+    /**
+     * Look up the cached first page of a channel's videos
+     */
+    public void getVideoPage(String channelId, LoadCallback<VideoPage> callback) {
+        load(videosKey(channelId), VideoPage.class, videosTtlMillis, callback);
+    }
+
+    public Entry<YouTubeChannel> putChannel(String channelId, YouTubeChannel channel) {
+        return store(channelKey(channelId), channel, channelTtlMillis);
+    }
+
+    public Entry<VideoPage> putVideoPage(String channelId, VideoPage page) {
+        return store(videosKey(channelId), page, videosTtlMillis);
+    }
+
+    /**
+     * Record that an expired entry was handed to a caller while it is being refreshed
+     */
+    void recordStaleServe() {
+        staleServes.incrementAndGet();
+    }
+
+    public Stats getStats() {
+        return new Stats(memoryCache.hitCount(), memoryCache.missCount(), memoryCache.evictionCount(),
+                diskHits.get(), diskMisses.get(), staleServes.get());
+    }
+
+    public void clear() {
+        memoryCache.evictAll();
+        diskExecutor.execute(() -> {
+            File[] files = diskDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void load(String key, Type type, long ttlMillis, LoadCallback<T> callback) {
+        Entry<T> cached = (Entry<T>) memoryCache.get(key);
+        if (cached != null) {
+            callback.onLoaded(cached);
+            return;
+        }
+
+        diskExecutor.execute(() -> {
+            Entry<T> entry = readFromDisk(key, type, ttlMillis);
+            if (entry != null) {
+                diskHits.incrementAndGet();
+                memoryCache.put(key, entry);
+            } else {
+                diskMisses.incrementAndGet();
+            }
+            callback.onLoaded(entry);
+        });
+    }
+
+    private <T> Entry<T> store(String key, T value, long ttlMillis) {
+        String json = gson.toJson(value);
+        Entry<T> entry = new Entry<>(value, System.currentTimeMillis(), fingerprintOf(json), ttlMillis);
+        memoryCache.put(key, entry);
+        diskExecutor.execute(() -> writeToDisk(key, entry.getSavedAtMillis(), json));
+        return entry;
+    }
+
+    private <T> Entry<T> readFromDisk(String key, Type type, long ttlMillis) {
+        File file = new File(diskDir, key + ".json");
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            JsonObject stored = gson.fromJson(reader, JsonObject.class);
+            long savedAt = stored.get("savedAt").getAsLong();
+            T value = gson.fromJson(stored.get("payload"), type);
+            return new Entry<>(value, savedAt, fingerprintOf(gson.toJson(value)), ttlMillis);
+        } catch (Exception e) {
+            Log.w(TAG, "Discarding unreadable cache file: " + file.getName(), e);
+            file.delete();
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, long savedAt, String json) {
+        File file = new File(diskDir, key + ".json");
+        File tmp = new File(diskDir, key + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+            writer.write("{\"savedAt\":" + savedAt + ",\"payload\":" + json + "}");
+        } catch (Exception e) {
+            Log.w(TAG, "Could not write cache file: " + file.getName(), e);
+            tmp.delete();
+            return;
+        }
+        // Rename so readers never see a partially written file
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+        trimDisk();
+    }
+
+    /**
+     * Delete files older than the age limit, then the oldest files until the size limit is met
+     */
+    private void trimDisk() {
+        File[] files = diskDir.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        Arrays.sort(files, (a, b) -> Long.compare(b.lastModified(), a.lastModified()));
+        long cutoff = System.currentTimeMillis() - MAX_DISK_AGE_MILLIS;
+        long totalBytes = 0;
+        int deleted = 0;
+        for (File file : files) {
+            long length = file.length();
+            if ((file.lastModified() < cutoff || totalBytes + length > MAX_DISK_BYTES) && file.delete()) {
+                deleted++;
+            } else {
+                totalBytes += length;
+            }
+        }
+        if (deleted > 0) {
+            Log.d(TAG, "Trimmed " + deleted + " cache files, " + totalBytes + " bytes left");
+        }
+    }
+
+    private String fingerprintOf(String json) {
+        return json.length() + ":" + json.hashCode();
+    }
+
+    private String channelKey(String channelId) {
+        return "channel_" + channelId;
+    }
+
+    private String videosKey(String channelId) {
+        return "videos_" + channelId;
+    }
+}
@@ -0,0 +1,236 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Channel suggestions for text typed into the channel box. Every search.list call costs 100
+ * quota units, so keystrokes are debounced, at most one search runs at a time (a newer query
+ * cancels the one in flight) and results are cached for a few minutes. A query that extends
+ * a cached one is answered by filtering the cached results locally when that gives enough
+ * matches, e.g. "linus te" is served from the results for "linus".
+ */
+public class ChannelTypeahead {
+
+    private static final String TAG = "ChannelTypeahead";
+
+    public static final long DEBOUNCE_MILLIS = 350;
+    public static final int MIN_QUERY_LENGTH = 3;
+    public static final int MAX_RESULTS = 10;
+    // Fewest local matches worth showing instead of asking the API again
+    private static final int MIN_LOCAL_RESULTS = 3;
+    private static final int CACHE_ENTRIES = 50;
+    private static final long CACHE_TTL_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * Performs the actual search.list request for channels
+     */
+    public interface Searcher {
+        RequestHandle searchChannels(String query, int maxResults, SearchCallback callback);
+    }
+
+    public interface SearchCallback {
+        void onSuccess(List<Suggestion> suggestions);
+        void onFailure(String error);
+    }
+
+    public interface Listener {
+        void onSuggestions(String query, List<Suggestion> suggestions);
+        void onFailure(String query, String error);
+    }
+
+    public static class Suggestion {
+        private final String channelId;
+        private final String title;
+
+        public Suggestion(String channelId, String title) {
+            this.channelId = channelId;
+            this.title = title;
+        }
+
+        public String getChannelId() { return channelId; }
+        public String getTitle() { return title; }
+
+        @Override
+        public String toString() {
+            return title;
+        }
+    }
+
+    private static class CachedResults {
+        final List<Suggestion> suggestions;
+        final long fetchedAtMillis;
+
+        CachedResults(List<Suggestion> suggestions, long fetchedAtMillis) {
+            this.suggestions = suggestions;
+            this.fetchedAtMillis = fetchedAtMillis;
+        }
+
+        // Fewer results than requested means the API had nothing more for this query
+        boolean isExhaustive() {
+            return suggestions.size() < MAX_RESULTS;
+        }
+    }
+
+    // Results are shared by every screen, like the HTTP cache
+    private static final LruCache<String, CachedResults> cache = new LruCache<>(CACHE_ENTRIES);
+
+    private final Searcher searcher;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable debouncedSearch = this::search;
+    private String pendingQuery;
+    private String inFlightQuery;
+    private RequestHandle inFlight;
+
+    public ChannelTypeahead(Searcher searcher, Listener listener) {
+        this.searcher = searcher;
+        this.listener = listener;
+    }
+
+    /**
+     * Call with the current text on every change. Call on the main thread.
+     */
+    public void onQueryChanged(String text) {
+        String query = normalize(text);
+        handler.removeCallbacks(debouncedSearch);
+        pendingQuery = query;
+
+        if (query.length() < MIN_QUERY_LENGTH) {
+            cancelInFlight();
+            listener.onSuggestions(query, new ArrayList<>());
+            return;
+        }
+
+        // Cached answers cost nothing, so they are shown without waiting for typing to pause
+        List<Suggestion> cached = findCached(query);
+        if (cached != null) {
+            cancelInFlight();
+            listener.onSuggestions(query, cached);
+            return;
+        }
+
+        handler.postDelayed(debouncedSearch, DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Drop any pending or running search, e.g. when a suggestion was picked or the screen closes
+     */
+    public void cancel() {
+        handler.removeCallbacks(debouncedSearch);
+        pendingQuery = null;
+        cancelInFlight();
+    }
+
+    private void search() {
+        String query = pendingQuery;
+        if (query == null || query.equals(inFlightQuery)) {
+            return;
+        }
+
+        // Only one search at a time, the newer query supersedes the running one
+        cancelInFlight();
+
+        // A search that finished during the debounce may already cover this query
+        List<Suggestion> cached = findCached(query);
+        if (cached != null) {
+            listener.onSuggestions(query, cached);
+            return;
+        }
+
+        inFlightQuery = query;
+        Log.d(TAG, "Searching channels for: " + query);
+
+        RequestHandle[] handle = new RequestHandle[1];
+        handle[0] = searcher.searchChannels(query, MAX_RESULTS, new SearchCallback() {
+            @Override
+            public void onSuccess(List<Suggestion> suggestions) {
+                cache.put(query, new CachedResults(suggestions, System.currentTimeMillis()));
+                if (finish(query, handle[0])) {
+                    listener.onSuggestions(query, suggestions);
+                }
+            }
+
+            @Override
+            public void onFailure(String error) {
+                if (finish(query, handle[0])) {
+                    listener.onFailure(query, error);
+                }
+            }
+        });
+
+        // The callback may already have run, e.g. when the quota budget refused the call
+        if (query.equals(inFlightQuery)) {
+            inFlight = handle[0];
+        }
+    }
+
+    /**
+     * Clear the in-flight state for a finished search. Returns false if a newer query replaced it.
+     */
+    private boolean finish(String query, RequestHandle handle) {
+        if (!query.equals(inFlightQuery) || (handle != null && handle != inFlight)) {
+            return false;
+        }
+        inFlightQuery = null;
+        inFlight = null;
+        return query.equals(pendingQuery);
+    }
+
+    private void cancelInFlight() {
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+        inFlightQuery = null;
+    }
+
+    /**
+     * Results for the query itself, or filtered from a cached shorter query it extends
+     */
+    private List<Suggestion> findCached(String query) {
+        long now = System.currentTimeMillis();
+        for (int end = query.length(); end >= MIN_QUERY_LENGTH; end--) {
+            String prefix = query.substring(0, end);
+            CachedResults cached = cache.get(prefix);
+            if (cached == null || now - cached.fetchedAtMillis > CACHE_TTL_MILLIS) {
+                continue;
+            }
+            if (end == query.length()) {
+                return cached.suggestions;
+            }
+
+            List<Suggestion> matches = new ArrayList<>();
+            for (Suggestion suggestion : cached.suggestions) {
+                if (suggestion.getTitle() != null
+                        && suggestion.getTitle().toLowerCase(Locale.ROOT).contains(query)) {
+                    matches.add(suggestion);
+                }
+            }
+            if (cached.isExhaustive() || matches.size() >= MIN_LOCAL_RESULTS) {
+                return matches;
+            }
+            // Too few local matches, the API would likely rank other channels for the longer query
+            return null;
+        }
+        return null;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.example.videosharingapp.models.YouTubeVideo;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-channel high-water marks: the newest publishedAt seen for each channel, plus when the
+ * channel's videos were last fully reloaded. Refreshes ask only for videos newer than the
+ * mark, and a full reload runs periodically so deleted or private videos drop out.
+ */
+public class ChannelWatermarks {
+
+    private static final String PREFS_NAME = "youtube_video_watermarks";
+    private static final String KEY_NEWEST = ":newest";
+    private static final String KEY_FULL_REFRESH_AT = ":fullRefreshAt";
+    private static final String KEY_DELTAS = ":deltas";
+
+    public static final long DEFAULT_FULL_REFRESH_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(24);
+    public static final int DEFAULT_MAX_DELTAS = 50;
+
+    private static ChannelWatermarks instance;
+
+    private final SharedPreferences prefs;
+    private long fullRefreshIntervalMillis = DEFAULT_FULL_REFRESH_INTERVAL_MILLIS;
+    private int maxDeltas = DEFAULT_MAX_DELTAS;
+
+    private ChannelWatermarks(Context context) {
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static synchronized ChannelWatermarks getInstance(Context context) {
+        if (instance == null) {
+            instance = new ChannelWatermarks(context);
+        }
+        return instance;
+    }
+
+    /**
+     * How often a full reload runs, by time and by number of delta refreshes in between
+     */
+    public synchronized void setFullRefreshPolicy(long intervalMillis, int maxDeltas) {
+        this.fullRefreshIntervalMillis = intervalMillis;
+        this.maxDeltas = maxDeltas;
+    }
+
+    /**
+     * Newest publishedAt seen for the channel, or null if it has never been loaded
+     */
+    public synchronized String getWatermark(String channelId) {
+        return prefs.getString(channelId + KEY_NEWEST, null);
+    }
+
+    public synchronized boolean needsFullRefresh(String channelId) {
+        long lastFull = prefs.getLong(channelId + KEY_FULL_REFRESH_AT, 0);
+        return getWatermark(channelId) == null
+                || System.currentTimeMillis() - lastFull > fullRefreshIntervalMillis
+                || prefs.getInt(channelId + KEY_DELTAS, 0) >= maxDeltas;
+    }
+
+    /**
+     * Record a full reload of the channel's newest videos
+     */
+    public synchronized void recordFullRefresh(String channelId, List<YouTubeVideo> videos) {
+        SharedPreferences.Editor editor = prefs.edit()
+                .putLong(channelId + KEY_FULL_REFRESH_AT, System.currentTimeMillis())
+                .putInt(channelId + KEY_DELTAS, 0);
+        String newest = newestPublishedAt(videos, null);
+        if (newest != null) {
+            editor.putString(channelId + KEY_NEWEST, newest);
+        }
+        editor.apply();
+    }
+
+    /**
+     * Record a delta refresh, advancing the watermark past any new videos
+     */
+    public synchronized void recordDelta(String channelId, List<YouTubeVideo> newer) {
+        String newest = newestPublishedAt(newer, getWatermark(channelId));
+        SharedPreferences.Editor editor = prefs.edit()
+                .putInt(channelId + KEY_DELTAS, prefs.getInt(channelId + KEY_DELTAS, 0) + 1);
+        if (newest != null) {
+            editor.putString(channelId + KEY_NEWEST, newest);
+        }
+        editor.apply();
+    }
+
+    // publishedAt is RFC 3339 in UTC, so comparing the strings compares the times
+    static String newestPublishedAt(List<YouTubeVideo> videos, String current) {
+        String newest = current;
+        if (videos == null) {
+            return newest;
+        }
+        for (YouTubeVideo video : videos) {
+            String publishedAt = video.getSnippet() != null ? video.getSnippet().getPublishedAt() : null;
+            if (publishedAt != null && (newest == null || publishedAt.compareTo(newest) > 0)) {
+                newest = publishedAt;
+            }
+        }
+        return newest;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.util.Log;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Network interceptor that makes YouTube Data API responses cacheable by OkHttp.
+ *
+ * The API returns an "etag" field in the JSON body. This interceptor copies it into the
+ * ETag response header (when the server did not send one) and replaces the server's
+ * Cache-Control with the freshness window from the ResponseCachePolicy. Once a cached
+ * response goes stale OkHttp sends If-None-Match with the stored ETag, and a 304 reply
+ * is served from disk without downloading the body again.
+ */
+public class EtagCacheInterceptor implements Interceptor {
+
+    private static final String TAG = "EtagCacheInterceptor";
+    // The API writes "kind" and "etag" before anything else, so only the start of the body is read
+    private static final long ETAG_PEEK_BYTES = 512;
+
+    private final ResponseCachePolicy policy;
+
+    public EtagCacheInterceptor(ResponseCachePolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        if (!"GET".equals(request.method())
+                || (response.code() != 200 && response.code() != 304)) {
+            return response;
+        }
+
+        Response.Builder builder = response.newBuilder()
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .header("Cache-Control", "max-age=" + policy.getFreshnessSeconds(endpointOf(request)));
+
+        if (response.code() == 200 && response.header("ETag") == null) {
+            String etag = readBodyEtag(response);
+            if (etag != null) {
+                builder.header("ETag", "\"" + etag.replace("\"", "") + "\"");
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * The last path segment of the request, e.g. "channels" or "search"
+     */
+    private String endpointOf(Request request) {
+        List<String> segments = request.url().pathSegments();
+        return segments.isEmpty() ? "" : segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Read the top-level "etag" field from the start of the response body without consuming it.
+     * Returns null when the field is not among the first few hundred bytes.
+     */
+    private String readBodyEtag(Response response) {
+        try {
+            String body = response.peekBody(ETAG_PEEK_BYTES).string();
+            JsonReader reader = new JsonReader(new StringReader(body));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("etag".equals(name) && reader.peek() == JsonToken.STRING) {
+                    return reader.nextString();
+                }
+                reader.skipValue();
+            }
+        } catch (IOException e) {
+            // Ran into the end of the peeked prefix before finding the field
+            Log.d(TAG, "No etag near the start of the response body");
+        } catch (Exception e) {
+            Log.w(TAG, "Could not read etag from response body", e);
+        }
+        return null;
+    }
+}
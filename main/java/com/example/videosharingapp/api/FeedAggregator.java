@@ -0,0 +1,250 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.videosharingapp.models.YouTubeVideo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds one timeline from the newest videos of several channels.
+ *
+ * Channels are fetched concurrently, at most maxParallel at a time. Each response is merged into
+ * the timeline as soon as it arrives, so the first rows show while other channels are still
+ * loading. Every channel's page is already newest first, so merging it is a single linear pass
+ * that reports where rows were inserted. A channel that does not answer within the per-channel
+ * timeout is cancelled and skipped instead of holding up the feed. More channels can be added
+ * while or after loading, e.g. the next page of saved channels once the user scrolls down.
+ */
+public class FeedAggregator {
+
+    private static final String TAG = "FeedAggregator";
+
+    public static final int DEFAULT_MAX_PARALLEL = 4;
+    public static final long DEFAULT_CHANNEL_TIMEOUT_MILLIS = 10_000;
+
+    public interface Listener {
+        /** Videos were inserted into the timeline, starting at position */
+        void onVideosInserted(int position, List<YouTubeVideo> videos);
+        void onChannelFailed(String channelId, String error);
+        /** Every channel added so far has loaded, failed or timed out. Counts are totals. */
+        void onComplete(int loadedChannels, int failedChannels);
+    }
+
+    private final YouTubeApiManager apiManager;
+    private final int maxParallel;
+    private final long channelTimeoutMillis;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final ArrayDeque<String> pendingChannels = new ArrayDeque<>();
+    private final Set<String> runningChannels = new HashSet<>();
+    private final Map<String, RequestHandle> channelRequests = new HashMap<>();
+    private final Set<String> requestedChannels = new HashSet<>();
+    private final List<YouTubeVideo> timeline = new ArrayList<>();
+    private final Set<String> timelineIds = new HashSet<>();
+    private Listener listener;
+    private int loadedChannels;
+    private int failedChannels;
+    private boolean canceled;
+
+    public FeedAggregator(YouTubeApiManager apiManager) {
+        this(apiManager, DEFAULT_MAX_PARALLEL, DEFAULT_CHANNEL_TIMEOUT_MILLIS);
+    }
+
+    public FeedAggregator(YouTubeApiManager apiManager, int maxParallel, long channelTimeoutMillis) {
+        this.apiManager = apiManager;
+        this.maxParallel = maxParallel;
+        this.channelTimeoutMillis = channelTimeoutMillis;
+    }
+
+    /**
+     * Load the feed for the given channels. Call on the main thread; the listener is called there too.
+     */
+    public void load(List<String> channelIds, Listener listener) {
+        setListener(listener);
+        addChannels(channelIds);
+    }
+
+    /**
+     * Set the listener before adding channels, for feeds that are built up with addChannels
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Add more channels to the feed. Channels already in the feed are skipped.
+     */
+    public void addChannels(List<String> channelIds) {
+        if (canceled) {
+            return;
+        }
+        // Channels saved more than once are only fetched once
+        int added = 0;
+        for (String channelId : new LinkedHashSet<>(channelIds)) {
+            if (requestedChannels.add(channelId)) {
+                pendingChannels.add(channelId);
+                added++;
+            }
+        }
+        Log.d(TAG, "Loading feed for " + added + " more channels");
+
+        if (runningChannels.isEmpty() && pendingChannels.isEmpty()) {
+            listener.onComplete(loadedChannels, failedChannels);
+            return;
+        }
+        startNext();
+    }
+
+    /**
+     * Whether channels are still queued or loading
+     */
+    public boolean isLoading() {
+        return !runningChannels.isEmpty() || !pendingChannels.isEmpty();
+    }
+
+    /**
+     * Stop loading. Running requests are cancelled and the listener is not called again.
+     */
+    public void cancel() {
+        canceled = true;
+        pendingChannels.clear();
+        runningChannels.clear();
+        for (RequestHandle handle : channelRequests.values()) {
+            handle.cancel();
+        }
+        channelRequests.clear();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    /**
+     * The merged timeline so far, newest first
+     */
+    public List<YouTubeVideo> getTimeline() {
+        return new ArrayList<>(timeline);
+    }
+
+    private void startNext() {
+        while (!canceled && runningChannels.size() < maxParallel && !pendingChannels.isEmpty()) {
+            String channelId = pendingChannels.pollFirst();
+            long startTime = System.currentTimeMillis();
+            runningChannels.add(channelId);
+
+            RequestHandle handle = apiManager.getChannelVideoPage(channelId, null,
+                    new YouTubeApiManager.VideoPageCallback() {
+                        @Override
+                        public void onSuccess(VideoPage page) {
+                            // Stale cached pages can be followed by a refreshed one, merging skips repeats
+                            boolean first = runningChannels.remove(channelId);
+                            Log.d(TAG, "Channel " + channelId + " answered in "
+                                    + (System.currentTimeMillis() - startTime) + "ms");
+                            merge(page.getVideos());
+                            if (first) {
+                                loadedChannels++;
+                                onChannelDone();
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(String error) {
+                            if (runningChannels.remove(channelId)) {
+                                failChannel(channelId, error);
+                            }
+                        }
+                    });
+
+            // Kept after the first result too, a stale cached page may still be refreshing
+            channelRequests.put(channelId, handle);
+            if (runningChannels.contains(channelId)) {
+                // Cancelling suppresses the callback, so the timeout is reported here
+                mainHandler.postDelayed(() -> {
+                    if (runningChannels.remove(channelId)) {
+                        handle.cancel();
+                        failChannel(channelId, "Timed out after " + channelTimeoutMillis + "ms");
+                    }
+                }, channelTimeoutMillis);
+            }
+        }
+    }
+
+    private void failChannel(String channelId, String error) {
+        Log.w(TAG, "Skipping channel " + channelId + ": " + error);
+        failedChannels++;
+        if (!canceled) {
+            listener.onChannelFailed(channelId, error);
+        }
+        onChannelDone();
+    }
+
+    private void onChannelDone() {
+        if (canceled) {
+            return;
+        }
+        if (runningChannels.isEmpty() && pendingChannels.isEmpty()) {
+            Log.d(TAG, "Feed complete: " + loadedChannels + " channels loaded, " + failedChannels
+                    + " failed, " + timeline.size() + " videos");
+            listener.onComplete(loadedChannels, failedChannels);
+        } else {
+            startNext();
+        }
+    }
+
+    /**
+     * Merge a newest-first run of videos into the newest-first timeline in one pass,
+     * reporting each contiguous block of inserted rows
+     */
+    private void merge(List<YouTubeVideo> videos) {
+        if (canceled) {
+            return;
+        }
+
+        List<YouTubeVideo> run = new ArrayList<>();
+        for (YouTubeVideo video : videos) {
+            if (video.getVideoId() != null && timelineIds.add(video.getVideoId())) {
+                run.add(video);
+            }
+        }
+        // Pages are normally sorted already, but the merge relies on it
+        run.sort((a, b) -> publishedAt(b).compareTo(publishedAt(a)));
+
+        int position = 0;
+        int index = 0;
+        while (index < run.size()) {
+            String next = publishedAt(run.get(index));
+            while (position < timeline.size() && publishedAt(timeline.get(position)).compareTo(next) >= 0) {
+                position++;
+            }
+
+            // Take every run video that belongs before the current timeline row
+            int blockStart = index;
+            String bound = position < timeline.size() ? publishedAt(timeline.get(position)) : null;
+            while (index < run.size() && (bound == null || publishedAt(run.get(index)).compareTo(bound) > 0)) {
+                index++;
+            }
+
+            List<YouTubeVideo> block = new ArrayList<>(run.subList(blockStart, index));
+            timeline.addAll(position, block);
+            listener.onVideosInserted(position, block);
+            position += block.size();
+        }
+    }
+
+    private static String publishedAt(YouTubeVideo video) {
+        String publishedAt = video.getSnippet() != null ? video.getSnippet().getPublishedAt() : null;
+        return publishedAt != null ? publishedAt : "";
+    }
+}
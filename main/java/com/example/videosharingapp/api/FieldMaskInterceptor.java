@@ -0,0 +1,41 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import java.io.IOException;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * Adds the partial-response fields= parameter to requests whose YouTubeApiService method
+ * is annotated with @ResponseFields, so every call only downloads the fields it uses
+ */
+public class FieldMaskInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null || request.url().queryParameter("fields") != null) {
+            return chain.proceed(request);
+        }
+
+        ResponseFields responseFields = invocation.method().getAnnotation(ResponseFields.class);
+        String mask = responseFields != null ? responseFields.value().getMask() : null;
+        if (mask == null) {
+            return chain.proceed(request);
+        }
+
+        HttpUrl url = request.url().newBuilder()
+                .addQueryParameter("fields", mask)
+                .build();
+        return chain.proceed(request.newBuilder().url(url).build());
+    }
+}
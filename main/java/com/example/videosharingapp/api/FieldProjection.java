@@ -0,0 +1,249 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.util.Log;
+
+import com.example.videosharingapp.data.VideoCatalog;
+import com.example.videosharingapp.models.YouTubePlaylistItemsResponse;
+import com.example.videosharingapp.models.YouTubeResponse;
+import com.example.videosharingapp.models.YouTubeVideoDetailsResponse;
+import com.example.videosharingapp.models.YouTubeVideosResponse;
+import com.google.gson.annotations.SerializedName;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The response fields each API call actually consumes, declared as JSON paths into the
+ * response model. The YouTube partial-response "fields" mask is derived from these paths,
+ * so responses only carry what the app reads.
+ *
+ * Model paths are checked against the @SerializedName fields of the model classes before a
+ * mask is used. If a path no longer matches the models the projection is disabled (full
+ * responses are requested) and an error is logged, rather than silently dropping data.
+ */
+public enum FieldProjection {
+
+    CHANNEL_INFO(YouTubeResponse.class,
+            new String[] {"etag"},
+            "items.id",
+            "items.snippet.title",
+            "items.snippet.description",
+            "items.snippet.thumbnails.default.url",
+            "items.snippet.thumbnails.medium.url",
+            "items.snippet.thumbnails.high.url",
+            "items.statistics.subscriberCount",
+            "items.statistics.videoCount",
+            "items.statistics.viewCount",
+            "items.contentDetails.relatedPlaylists.uploads"),
+
+    CHANNEL_ID(YouTubeResponse.class,
+            new String[] {"etag"},
+            "items.id"),
+
+    CHANNEL_VIDEOS(YouTubeVideosResponse.class,
+            new String[] {"etag"},
+            "nextPageToken",
+            "items.id.videoId",
+            "items.snippet.title",
+            "items.snippet.channelId",
+            "items.snippet.channelTitle",
+            "items.snippet.publishedAt",
+            "items.snippet.thumbnails.medium.url"),
+
+    CHANNEL_SEARCH(YouTubeVideosResponse.class,
+            new String[] {"etag"},
+            "items.id.channelId",
+            "items.snippet.title"),
+
+    PLAYLIST_ITEMS(YouTubePlaylistItemsResponse.class,
+            new String[] {"etag"},
+            "nextPageToken",
+            "items.snippet.title",
+            "items.snippet.channelId",
+            "items.snippet.channelTitle",
+            "items.snippet.videoOwnerChannelId",
+            "items.snippet.videoOwnerChannelTitle",
+            "items.snippet.publishedAt",
+            "items.snippet.thumbnails.medium.url",
+            "items.snippet.resourceId.videoId",
+            "items.contentDetails.videoId",
+            "items.contentDetails.videoPublishedAt"),
+
+    VIDEO_DETAILS(YouTubeVideoDetailsResponse.class,
+            new String[] {"etag"},
+            "items.id",
+            "items.contentDetails.duration",
+            "items.statistics.viewCount",
+            "items.statistics.likeCount");
+
+    private static final String TAG = "FieldProjection";
+
+    private final Class<?> responseModel;
+    // Fields consumed outside the models, e.g. the etag used by EtagCacheInterceptor
+    private final String[] protocolFields;
+    private final String[] modelPaths;
+    private String mask;
+    private boolean resolved;
+
+    FieldProjection(Class<?> responseModel, String[] protocolFields, String... modelPaths) {
+        this.responseModel = responseModel;
+        this.protocolFields = protocolFields;
+        this.modelPaths = modelPaths;
+    }
+
+    public String[] getModelPaths() {
+        return modelPaths.clone();
+    }
+
+    /**
+     * The fields= value for this call, or null if the declared paths are out of sync with the models
+     */
+    public synchronized String getMask() {
+        if (!resolved) {
+            resolved = true;
+            String mismatch = findModelMismatch();
+            if (mismatch != null) {
+                Log.e(TAG, name() + " is out of sync with " + responseModel.getSimpleName()
+                        + ": " + mismatch + ". Requesting full responses instead.");
+            } else {
+                mask = buildMask();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Check every declared path resolves to a serialized field of the response model.
+     * Returns a description of the first path that does not, or null if all match.
+     */
+    public String findModelMismatch() {
+        for (String path : modelPaths) {
+            Type current = responseModel;
+            for (String name : path.split("\\.")) {
+                Class<?> currentClass = elementClass(current);
+                Field field = findSerializedField(currentClass, name);
+                if (field == null) {
+                    return "no field \"" + name + "\" in " + currentClass.getSimpleName() + " for path " + path;
+                }
+                current = field.getGenericType();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check a consumer only reads paths this mask keeps. A path is kept when it or one of its
+     * parents is declared. Returns the first path the mask would drop, or null if all are kept.
+     */
+    public String findUncovered(String... consumedPaths) {
+        for (String consumed : consumedPaths) {
+            boolean covered = false;
+            for (String path : modelPaths) {
+                if (consumed.equals(path) || consumed.startsWith(path + ".")) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) {
+                return consumed;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Verify every projection against its model, and the stored channel columns against the
+     * channel mask, for use from tests or debug startup checks
+     */
+    public static String verifyAll() {
+        for (FieldProjection projection : values()) {
+            String mismatch = projection.findModelMismatch();
+            if (mismatch != null) {
+                return projection.name() + ": " + mismatch;
+            }
+        }
+
+        String uncovered = CHANNEL_INFO.findUncovered(VideoCatalog.STORED_CHANNEL_PATHS);
+        if (uncovered != null) {
+            return CHANNEL_INFO.name() + ": VideoCatalog stores " + uncovered + " but the mask drops it";
+        }
+        return null;
+    }
+
+    private String buildMask() {
+        Node root = new Node();
+        for (String field : protocolFields) {
+            root.child(field);
+        }
+        for (String path : modelPaths) {
+            Node node = root;
+            for (String name : path.split("\\.")) {
+                node = node.child(name);
+            }
+        }
+        return root.render();
+    }
+
+    /**
+     * Unwrap List<T> to T so paths can step through arrays
+     */
+    private static Class<?> elementClass(Type type) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Type[] arguments = parameterized.getActualTypeArguments();
+            return elementClass(arguments[arguments.length - 1]);
+        }
+        return type instanceof Class ? (Class<?>) type : Object.class;
+    }
+
+    private static Field findSerializedField(Class<?> type, String jsonName) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                String name = serializedName != null ? serializedName.value() : field.getName();
+                if (name.equals(jsonName)) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tree of field names rendered in the API's fields syntax, e.g. "items(id,snippet(title))"
+     */
+    private static class Node {
+        private final Map<String, Node> children = new LinkedHashMap<>();
+
+        Node child(String name) {
+            Node child = children.get(name);
+            if (child == null) {
+                child = new Node();
+                children.put(name, child);
+            }
+            return child;
+        }
+
+        String render() {
+            StringBuilder builder = new StringBuilder();
+            for (Map.Entry<String, Node> entry : children.entrySet()) {
+                if (builder.length() > 0) {
+                    builder.append(',');
+                }
+                builder.append(entry.getKey());
+                if (!entry.getValue().children.isEmpty()) {
+                    builder.append('(').append(entry.getValue().render()).append(')');
+                }
+            }
+            return builder.toString();
+        }
+    }
+}
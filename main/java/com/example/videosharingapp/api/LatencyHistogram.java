@@ -0,0 +1,98 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+/**
+ * Fixed-size histogram of durations with logarithmic buckets, used to report percentiles
+ * without keeping every sample. Each bucket is about 19% wider than the previous one,
+ * so reported percentiles are within that much of the true value.
+ */
+public class LatencyHistogram {
+
+    private static final double BUCKET_GROWTH = 1.19;
+    private static final int BUCKET_COUNT = 100; // Covers 0 ms to well over 10 minutes
+
+    private static final long[] UPPER_BOUNDS = new long[BUCKET_COUNT];
+
+    static {
+        double bound = 1;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            UPPER_BOUNDS[i] = (long) Math.ceil(bound);
+            bound *= BUCKET_GROWTH;
+        }
+    }
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long total;
+    private long sum;
+    private long max;
+
+    public synchronized void record(long value) {
+        if (value < 0) {
+            return;
+        }
+        counts[bucketFor(value)]++;
+        total++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    public synchronized long getCount() {
+        return total;
+    }
+
+    public synchronized long getSum() {
+        return sum;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized double getMean() {
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    /**
+     * Value at the given percentile (0-100), reported as the upper bound of its bucket
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(UPPER_BOUNDS[i], max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "n=" + total + " p50=" + getPercentile(50) + " p95=" + getPercentile(95)
+                + " p99=" + getPercentile(99) + " max=" + max;
+    }
+
+    private static int bucketFor(long value) {
+        // Binary search for the first bucket whose upper bound holds the value
+        int low = 0;
+        int high = BUCKET_COUNT - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (UPPER_BOUNDS[mid] >= value) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
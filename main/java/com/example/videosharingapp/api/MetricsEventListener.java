@@ -0,0 +1,148 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * OkHttp EventListener that times each phase of a call (DNS, connect, TLS, time to first
+ * byte, body download) and records it per endpoint in NetworkMetrics.
+ * A new listener is created for every call, so the timestamps need no synchronisation.
+ */
+public class MetricsEventListener extends EventListener {
+
+    public static final EventListener.Factory FACTORY = call -> new MetricsEventListener(endpointOf(call));
+
+    private final String endpoint;
+    private final NetworkMetrics metrics = NetworkMetrics.getInstance();
+
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestSent;
+    private long responseBodyStart;
+    private boolean connected;
+    private boolean servedFromCache;
+
+    MetricsEventListener(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * The last path segment, e.g. "channels" or "playlistItems"
+     */
+    static String endpointOf(Call call) {
+        List<String> segments = call.request().url().pathSegments();
+        return segments.isEmpty() ? "" : segments.get(segments.size() - 1);
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        metrics.recordPhase(endpoint, NetworkMetrics.Phase.DNS, elapsedMillis(dnsStart));
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+        connected = true;
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        metrics.recordPhase(endpoint, NetworkMetrics.Phase.TLS, elapsedMillis(secureConnectStart));
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        metrics.recordPhase(endpoint, NetworkMetrics.Phase.CONNECT, elapsedMillis(connectStart));
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        // No connectStart before acquiring means the connection came from the pool
+        metrics.recordConnection(endpoint, !connected);
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestSent = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestSent = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        if (requestSent != 0) {
+            metrics.recordPhase(endpoint, NetworkMetrics.Phase.TIME_TO_FIRST_BYTE, elapsedMillis(requestSent));
+        }
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        responseBodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        metrics.recordPhase(endpoint, NetworkMetrics.Phase.BODY_DOWNLOAD, elapsedMillis(responseBodyStart));
+        metrics.recordResponseBytes(endpoint, byteCount);
+    }
+
+    @Override
+    public void cacheHit(Call call, Response cachedResponse) {
+        servedFromCache = true;
+        metrics.recordCacheHit(endpoint);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        // Cache hits never touch the network, counting them would pull down the latency used for hedging
+        if (!servedFromCache) {
+            metrics.recordPhase(endpoint, NetworkMetrics.Phase.TOTAL, elapsedMillis(callStart));
+        }
+        metrics.recordCall(endpoint, false);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        metrics.recordCall(endpoint, true);
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide network timing collected by MetricsEventListener and TimingConverterFactory.
+ * Each endpoint keeps a latency histogram per request phase, plus connection reuse,
+ * cache, response size and cancellation counters.
+ */
+public class NetworkMetrics {
+
+    private static final String TAG = "NetworkMetrics";
+
+    public enum Phase {
+        DNS,
+        CONNECT,        // TCP connect, including TLS
+        TLS,
+        TIME_TO_FIRST_BYTE,
+        BODY_DOWNLOAD,
+        PARSE,          // Microseconds, unlike the other phases
+        TOTAL
+    }
+
+    /**
+     * Counters and histograms for a single endpoint
+     */
+    public static class EndpointMetrics {
+        private final Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+        private final LatencyHistogram responseBytes = new LatencyHistogram();
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong newConnections = new AtomicLong();
+        private final AtomicLong reusedConnections = new AtomicLong();
+        private final AtomicLong cacheHits = new AtomicLong();
+        private final AtomicLong canceledBeforeSend = new AtomicLong();
+        private final AtomicLong canceledInFlight = new AtomicLong();
+        private final AtomicLong savedBytes = new AtomicLong();
+
+        EndpointMetrics() {
+            for (Phase phase : Phase.values()) {
+                phases.put(phase, new LatencyHistogram());
+            }
+        }
+
+        public LatencyHistogram getHistogram(Phase phase) { return phases.get(phase); }
+        public LatencyHistogram getResponseBytes() { return responseBytes; }
+        public long getCalls() { return calls.get(); }
+        public long getFailures() { return failures.get(); }
+        public long getNewConnections() { return newConnections.get(); }
+        public long getReusedConnections() { return reusedConnections.get(); }
+        public long getCacheHits() { return cacheHits.get(); }
+        /** Requests cancelled while still queued, which never used the network or quota */
+        public long getCanceledBeforeSend() { return canceledBeforeSend.get(); }
+        public long getCanceledInFlight() { return canceledInFlight.get(); }
+        /** Response bytes not downloaded because of cancellation, estimated from the mean response size */
+        public long getSavedBytes() { return savedBytes.get(); }
+
+        /**
+         * Share of network calls that reused a pooled connection instead of opening a new one
+         */
+        public double getConnectionReuseRate() {
+            long total = newConnections.get() + reusedConnections.get();
+            return total == 0 ? 0 : (double) reusedConnections.get() / total;
+        }
+    }
+
+    private static final NetworkMetrics instance = new NetworkMetrics();
+
+    private final Map<String, EndpointMetrics> endpoints = new TreeMap<>();
+
+    public static NetworkMetrics getInstance() {
+        return instance;
+    }
+
+    public synchronized EndpointMetrics forEndpoint(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics == null) {
+            metrics = new EndpointMetrics();
+            endpoints.put(endpoint, metrics);
+        }
+        return metrics;
+    }
+
+    public synchronized Map<String, EndpointMetrics> getEndpoints() {
+        return new TreeMap<>(endpoints);
+    }
+
+    void recordPhase(String endpoint, Phase phase, long value) {
+        forEndpoint(endpoint).phases.get(phase).record(value);
+    }
+
+    void recordCall(String endpoint, boolean failed) {
+        EndpointMetrics metrics = forEndpoint(endpoint);
+        metrics.calls.incrementAndGet();
+        if (failed) {
+            metrics.failures.incrementAndGet();
+        }
+    }
+
+    void recordConnection(String endpoint, boolean reused) {
+        EndpointMetrics metrics = forEndpoint(endpoint);
+        (reused ? metrics.reusedConnections : metrics.newConnections).incrementAndGet();
+    }
+
+    void recordCacheHit(String endpoint) {
+        forEndpoint(endpoint).cacheHits.incrementAndGet();
+    }
+
+    void recordResponseBytes(String endpoint, long bytes) {
+        forEndpoint(endpoint).responseBytes.record(bytes);
+    }
+
+    void recordCancellation(String endpoint, boolean sent) {
+        EndpointMetrics metrics = forEndpoint(endpoint);
+        (sent ? metrics.canceledInFlight : metrics.canceledBeforeSend).incrementAndGet();
+        metrics.savedBytes.addAndGet((long) metrics.responseBytes.getMean());
+    }
+
+    /**
+     * Human readable summary of every endpoint, phase percentiles are in milliseconds except PARSE
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, EndpointMetrics> entry : getEndpoints().entrySet()) {
+            EndpointMetrics metrics = entry.getValue();
+            report.append(entry.getKey())
+                    .append(": calls=").append(metrics.getCalls())
+                    .append(" failures=").append(metrics.getFailures())
+                    .append(" cacheHits=").append(metrics.getCacheHits())
+                    .append(String.format(Locale.US, " connectionReuse=%.0f%%",
+                            metrics.getConnectionReuseRate() * 100))
+                    .append(" canceledQueued=").append(metrics.getCanceledBeforeSend())
+                    .append(" canceledInFlight=").append(metrics.getCanceledInFlight())
+                    .append(" savedBytes~").append(metrics.getSavedBytes())
+                    .append('\n');
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = metrics.getHistogram(phase);
+                if (histogram.getCount() > 0) {
+                    report.append("  ").append(phase).append(phase == Phase.PARSE ? " (us)" : "")
+                            .append(": ").append(histogram).append('\n');
+                }
+            }
+            report.append("  RESPONSE_BYTES: ").append(metrics.getResponseBytes()).append('\n');
+        }
+        return report.toString();
+    }
+
+    /**
+     * Write the report to a file, e.g. in the app's files directory for pulling with adb
+     */
+    public void dumpTo(File file) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(getReport());
+        }
+        Log.d(TAG, "Network metrics written to " + file);
+    }
+
+    public synchronized void reset() {
+        endpoints.clear();
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Tracks YouTube Data API quota consumption against a daily budget.
+ * The API quota resets at midnight Pacific Time, so spend is kept per Pacific calendar day
+ * and persisted so it survives app restarts.
+ */
+public class QuotaBudget {
+
+    private static final String TAG = "QuotaBudget";
+    private static final String PREFS_NAME = "youtube_quota_budget";
+    private static final String KEY_DAY = "day";
+    private static final String KEY_SPENT = "spent";
+
+    public static final int DEFAULT_DAILY_BUDGET = 10000;
+
+    private static QuotaBudget instance;
+
+    private final SharedPreferences prefs;
+    private final SimpleDateFormat dayFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+
+    private int dailyBudget = DEFAULT_DAILY_BUDGET;
+    private String day;
+    private long spent;
+    private final Map<ApiMethod, Long> spendByMethod = new EnumMap<>(ApiMethod.class);
+
+    QuotaBudget(SharedPreferences prefs) {
+        this.prefs = prefs;
+        dayFormat.setTimeZone(TimeZone.getTimeZone("America/Los_Angeles"));
+        load();
+    }
+
+    public static synchronized QuotaBudget getInstance(Context context) {
+        if (instance == null) {
+            instance = new QuotaBudget(context != null
+                    ? context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                    : null);
+        }
+        return instance;
+    }
+
+    public synchronized void setDailyBudget(int dailyBudget) {
+        this.dailyBudget = dailyBudget;
+    }
+
+    public synchronized int getDailyBudget() {
+        return dailyBudget;
+    }
+
+    /**
+     * Reserve the cost of a request if at least reserveUnits would remain afterwards
+     */
+    public synchronized boolean tryConsume(ApiMethod method, long reserveUnits) {
+        rollOverIfNewDay();
+        if (dailyBudget - spent - method.getCost() < reserveUnits) {
+            return false;
+        }
+
+        spent += method.getCost();
+        spendByMethod.put(method, getSpent(method) + method.getCost());
+        save(method);
+        return true;
+    }
+
+    /**
+     * Give back the cost of a request that was served from the local HTTP cache
+     */
+    public synchronized void refund(ApiMethod method) {
+        spent = Math.max(0, spent - method.getCost());
+        spendByMethod.put(method, Math.max(0, getSpent(method) - method.getCost()));
+        save(method);
+    }
+
+    /**
+     * The server reported quotaExceeded, so treat the rest of today's budget as used
+     */
+    public synchronized void markExhausted() {
+        Log.w(TAG, "Server reported quota exceeded, blocking requests until the daily reset");
+        spent = Math.max(spent, dailyBudget);
+        save(null);
+    }
+
+    public synchronized long getRemaining() {
+        rollOverIfNewDay();
+        return Math.max(0, dailyBudget - spent);
+    }
+
+    public synchronized long getSpent() {
+        rollOverIfNewDay();
+        return spent;
+    }
+
+    public synchronized long getSpent(ApiMethod method) {
+        Long methodSpend = spendByMethod.get(method);
+        return methodSpend != null ? methodSpend : 0;
+    }
+
+    /**
+     * Units spent today per API method
+     */
+    public synchronized Map<ApiMethod, Long> getSpendByMethod() {
+        rollOverIfNewDay();
+        return new EnumMap<>(spendByMethod);
+    }
+
+    private void rollOverIfNewDay() {
+        String today = dayFormat.format(new Date());
+        if (!today.equals(day)) {
+            day = today;
+            spent = 0;
+            spendByMethod.clear();
+            startNewDay();
+        }
+    }
+
+    private void load() {
+        day = dayFormat.format(new Date());
+        if (prefs == null) {
+            return;
+        }
+        if (!day.equals(prefs.getString(KEY_DAY, null))) {
+            startNewDay();
+            return;
+        }
+
+        spent = prefs.getLong(KEY_SPENT, 0);
+        for (ApiMethod method : ApiMethod.values()) {
+            long methodSpend = prefs.getLong(KEY_SPENT + "_" + method.name(), 0);
+            if (methodSpend > 0) {
+                spendByMethod.put(method, methodSpend);
+            }
+        }
+    }
+
+    /**
+     * Drop the previous day's counters. This is the only write that rewrites the whole file.
+     */
+    private void startNewDay() {
+        if (prefs == null) {
+            return;
+        }
+        prefs.edit()
+                .clear()
+                .putString(KEY_DAY, day)
+                .apply();
+    }
+
+    /**
+     * Write today's total and the counter of the method that changed, if any
+     */
+    private void save(ApiMethod method) {
+        if (prefs == null) {
+            return;
+        }
+
+        SharedPreferences.Editor editor = prefs.edit().putLong(KEY_SPENT, spent);
+        if (method != null) {
+            editor.putLong(KEY_SPENT + "_" + method.name(), getSpent(method));
+        }
+        editor.apply();
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks in-flight requests by key so identical requests share one network call.
+ * The first caller for a key becomes the leader and issues the request; later callers
+ * are queued and all of them receive the single result when the leader completes.
+ * Callers can leave before then; the request itself is cancelled once the last one has left.
+ */
+public class RequestCoalescer<C> {
+
+    private static class Entry<C> {
+        final List<C> waiting = new ArrayList<>();
+        final RequestHandle handle = new RequestHandle();
+    }
+
+    private final Map<String, Entry<C>> inFlight = new HashMap<>();
+
+    /**
+     * Register a callback for a request key.
+     * Returns true if the caller should issue the request, false if it joined one already in flight.
+     */
+    public synchronized boolean join(String key, C callback) {
+        Entry<C> entry = inFlight.get(key);
+        if (entry != null) {
+            entry.waiting.add(callback);
+            return false;
+        }
+
+        entry = new Entry<>();
+        entry.waiting.add(callback);
+        inFlight.put(key, entry);
+        return true;
+    }
+
+    /**
+     * Handle for the shared request, which the leader attaches its network work to.
+     * It is cancelled once every waiting caller has left.
+     */
+    public synchronized RequestHandle getHandle(String key) {
+        Entry<C> entry = inFlight.get(key);
+        return entry != null ? entry.handle : null;
+    }
+
+    /**
+     * Stop waiting on a request. The shared request is only cancelled when no one else is waiting for it.
+     */
+    public void leave(String key, C callback) {
+        RequestHandle abandoned = null;
+        synchronized (this) {
+            Entry<C> entry = inFlight.get(key);
+            if (entry == null || !entry.waiting.remove(callback)) {
+                return;
+            }
+            if (entry.waiting.isEmpty()) {
+                inFlight.remove(key);
+                abandoned = entry.handle;
+            }
+        }
+        if (abandoned != null) {
+            abandoned.cancel();
+        }
+    }
+
+    /**
+     * Remove the request and return every callback waiting on it. The handle guards against
+     * a cancelled request completing the entry of a newer request for the same key.
+     */
+    public synchronized List<C> complete(String key, RequestHandle handle) {
+        Entry<C> entry = inFlight.get(key);
+        if (entry == null || entry.handle != handle) {
+            return new ArrayList<>();
+        }
+        inFlight.remove(key);
+        entry.handle.finish();
+        return entry.waiting;
+    }
+
+    public synchronized boolean isInFlight(String key) {
+        return inFlight.containsKey(key);
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cancellation handle for a request made through the API manager.
+ *
+ * Cancelling runs every registered cancel action once, e.g. removing the request from the
+ * scheduler queue or cancelling the HTTP call, and the caller's callback is not invoked
+ * afterwards. A finished handle ignores cancel.
+ */
+public class RequestHandle {
+
+    private List<Runnable> cancelActions = new ArrayList<>();
+    private boolean canceled;
+    private boolean finished;
+    private RequestScope scope;
+
+    public void cancel() {
+        List<Runnable> actions;
+        synchronized (this) {
+            if (canceled || finished) {
+                return;
+            }
+            canceled = true;
+            actions = cancelActions;
+            cancelActions = new ArrayList<>();
+        }
+        for (Runnable action : actions) {
+            action.run();
+        }
+        detachFromScope();
+    }
+
+    public synchronized boolean isCanceled() {
+        return canceled;
+    }
+
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Run the action when this handle is cancelled, or straight away if it already was
+     */
+    public void onCancel(Runnable action) {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            if (!canceled) {
+                cancelActions.add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Cancel the child whenever this handle is cancelled
+     */
+    public void attach(RequestHandle child) {
+        if (child != null) {
+            onCancel(child::cancel);
+        }
+    }
+
+    /**
+     * The request delivered its last result, so there is nothing left to cancel
+     */
+    public void finish() {
+        complete();
+    }
+
+    /**
+     * Finish and hand the last result to the caller, or drop it if the handle was cancelled
+     */
+    public void deliver(Runnable delivery) {
+        if (complete()) {
+            delivery.run();
+        }
+    }
+
+    private boolean complete() {
+        synchronized (this) {
+            if (canceled) {
+                return false;
+            }
+            if (finished) {
+                return true;
+            }
+            finished = true;
+            cancelActions.clear();
+        }
+        detachFromScope();
+        return true;
+    }
+
+    synchronized void setScope(RequestScope scope) {
+        this.scope = scope;
+    }
+
+    private void detachFromScope() {
+        RequestScope owner;
+        synchronized (this) {
+            owner = scope;
+            scope = null;
+        }
+        if (owner != null) {
+            owner.remove(this);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Dispatches API requests through priority lanes while keeping them within the quota budget.
+ *
+ * At most maxConcurrent requests run at once and queued requests always leave from the
+ * highest priority lane first. Lower priority lanes must leave a reserve of the daily budget
+ * untouched, so when quota runs low background and prefetch work is shed while user-visible
+ * loads can still spend what is left.
+ */
+public class RequestScheduler {
+
+    private static final String TAG = "RequestScheduler";
+
+    public static final int DEFAULT_MAX_CONCURRENT = 4;
+
+    public enum Priority {
+        USER(0.0),          // Lists the user is waiting on
+        PREFETCH(0.10),     // Next pages loaded ahead of scrolling
+        BACKGROUND(0.25);   // Cache refreshes and other work nobody is waiting on
+
+        // Share of the daily budget this lane must leave unspent
+        private final double reserveFraction;
+
+        Priority(double reserveFraction) {
+            this.reserveFraction = reserveFraction;
+        }
+    }
+
+    /**
+     * A request waiting to be dispatched
+     */
+    public interface Task {
+        /** Start the request. ticket.complete must be called exactly once when it finishes. */
+        void start(Ticket ticket);
+        /** The request was shed to protect the remaining quota */
+        void onRejected(String reason);
+    }
+
+    /**
+     * Handle for a dispatched request, used to release its slot when it finishes
+     */
+    public class Ticket {
+        private final ApiMethod method;
+        private boolean completed;
+
+        Ticket(ApiMethod method) {
+            this.method = method;
+        }
+
+        /**
+         * Mark the request finished. Requests answered by the local HTTP cache never
+         * reached the API, so their cost is refunded.
+         */
+        public void complete(boolean servedFromCache) {
+            synchronized (RequestScheduler.this) {
+                if (completed) {
+                    return;
+                }
+                completed = true;
+                inFlight--;
+            }
+            if (servedFromCache) {
+                budget.refund(method);
+            }
+            dispatch();
+        }
+    }
+
+    private static class Pending {
+        final ApiMethod method;
+        final Task task;
+
+        Pending(ApiMethod method, Task task) {
+            this.method = method;
+            this.task = task;
+        }
+    }
+
+    private final QuotaBudget budget;
+    private final int maxConcurrent;
+    private final ResiliencePolicy resiliencePolicy = new ResiliencePolicy();
+    private final Map<Priority, ArrayDeque<Pending>> lanes = new EnumMap<>(Priority.class);
+    private final Map<Priority, Long> shedCounts = new EnumMap<>(Priority.class);
+    private int inFlight;
+
+    public RequestScheduler(QuotaBudget budget) {
+        this(budget, DEFAULT_MAX_CONCURRENT);
+    }
+
+    public RequestScheduler(QuotaBudget budget, int maxConcurrent) {
+        this.budget = budget;
+        this.maxConcurrent = maxConcurrent;
+        for (Priority priority : Priority.values()) {
+            lanes.put(priority, new ArrayDeque<>());
+            shedCounts.put(priority, 0L);
+        }
+    }
+
+    public void submit(ApiMethod method, Priority priority, Task task) {
+        submitPending(priority, new Pending(method, task));
+    }
+
+    /**
+     * Schedule a Retrofit call. It runs through a ResilientCall, so it is bounded by the
+     * endpoint's deadline and retried or hedged as the resilience policy allows, with each
+     * extra attempt charged to the quota budget. The callback receives the final response as
+     * usual, or onFailure with an IOException if the request was shed to protect the quota.
+     * Once cancelled through the returned handle the callback is not invoked at all.
+     */
+    public <T> RequestHandle enqueue(Call<T> call, ApiMethod method, Priority priority, Callback<T> callback) {
+        long reserve = (long) (budget.getDailyBudget() * priority.reserveFraction);
+        RequestHandle handle = new RequestHandle();
+
+        Pending pending = new Pending(method, new Task() {
+            @Override
+            public void start(Ticket ticket) {
+                if (handle.isCanceled()) {
+                    // Cancelled between leaving the queue and starting, so it was never sent
+                    ticket.complete(true);
+                    return;
+                }
+
+                ResilientCall<T> resilientCall = new ResilientCall<>(call, method.getEndpoint(), resiliencePolicy,
+                        () -> budget.tryConsume(method, reserve), new Callback<T>() {
+                    @Override
+                    public void onResponse(Call<T> call, Response<T> response) {
+                        if (isQuotaExceeded(response)) {
+                            budget.markExhausted();
+                        }
+                        ticket.complete(response.raw().networkResponse() == null);
+                        handle.deliver(() -> callback.onResponse(call, response));
+                    }
+
+                    @Override
+                    public void onFailure(Call<T> call, Throwable t) {
+                        ticket.complete(false);
+                        handle.deliver(() -> callback.onFailure(call, t));
+                    }
+                });
+                handle.onCancel(() -> {
+                    NetworkMetrics.getInstance().recordCancellation(method.getEndpoint(), true);
+                    // The call will not report back once cancelled, so its slot is freed here
+                    resilientCall.cancel();
+                    ticket.complete(false);
+                });
+                resilientCall.start();
+            }
+
+            @Override
+            public void onRejected(String reason) {
+                handle.deliver(() -> callback.onFailure(call, new IOException(reason)));
+            }
+        });
+
+        handle.onCancel(() -> {
+            if (removeQueued(priority, pending)) {
+                NetworkMetrics.getInstance().recordCancellation(method.getEndpoint(), false);
+            }
+        });
+        submitPending(priority, pending);
+        return handle;
+    }
+
+    public QuotaBudget getBudget() {
+        return budget;
+    }
+
+    public ResiliencePolicy getResiliencePolicy() {
+        return resiliencePolicy;
+    }
+
+    /**
+     * Number of requests shed per lane since the app started
+     */
+    public synchronized Map<Priority, Long> getShedCounts() {
+        return new EnumMap<>(shedCounts);
+    }
+
+    public synchronized int getQueuedCount() {
+        int queued = 0;
+        for (ArrayDeque<Pending> lane : lanes.values()) {
+            queued += lane.size();
+        }
+        return queued;
+    }
+
+    private void submitPending(Priority priority, Pending pending) {
+        synchronized (this) {
+            lanes.get(priority).addLast(pending);
+        }
+        dispatch();
+    }
+
+    private synchronized boolean removeQueued(Priority priority, Pending pending) {
+        return lanes.get(priority).remove(pending);
+    }
+
+    private void dispatch() {
+        while (true) {
+            Pending next = null;
+            Ticket ticket = null;
+            String rejection = null;
+
+            synchronized (this) {
+                if (inFlight >= maxConcurrent) {
+                    return;
+                }
+                for (Priority priority : Priority.values()) {
+                    ArrayDeque<Pending> lane = lanes.get(priority);
+                    if (lane.isEmpty()) {
+                        continue;
+                    }
+
+                    next = lane.pollFirst();
+                    long reserve = (long) (budget.getDailyBudget() * priority.reserveFraction);
+                    if (budget.tryConsume(next.method, reserve)) {
+                        inFlight++;
+                        ticket = new Ticket(next.method);
+                    } else {
+                        shedCounts.put(priority, shedCounts.get(priority) + 1);
+                        rejection = priority == Priority.USER
+                                ? "Daily API quota exhausted"
+                                : "Quota budget reserved for higher priority requests ("
+                                        + budget.getRemaining() + " units left)";
+                    }
+                    break;
+                }
+            }
+
+            if (next == null) {
+                return;
+            }
+            if (ticket != null) {
+                next.task.start(ticket);
+            } else {
+                Log.w(TAG, "Shedding " + next.method + " request: " + rejection);
+                next.task.onRejected(rejection);
+            }
+        }
+    }
+
+    /**
+     * A 403 whose error reason is quotaExceeded or dailyLimitExceeded
+     */
+    private boolean isQuotaExceeded(Response<?> response) {
+        if (response.code() != 403 || response.errorBody() == null) {
+            return false;
+        }
+        try {
+            // Retrofit buffers error bodies, so peeking leaves it readable for the caller
+            String body = response.errorBody().source().peek().readUtf8();
+            return body.contains("quotaExceeded") || body.contains("dailyLimitExceeded");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ties requests to a lifecycle owner such as an Activity. Every request still running when
+ * the owner is destroyed (back navigation, rotation) is cancelled, so its response is not
+ * downloaded, parsed or delivered to a dead screen.
+ */
+public class RequestScope implements DefaultLifecycleObserver {
+
+    private static final String TAG = "RequestScope";
+
+    private final Set<RequestHandle> handles = new LinkedHashSet<>();
+    private boolean closed;
+
+    /**
+     * Create a scope that is cancelled when the owner is destroyed
+     */
+    public static RequestScope bind(LifecycleOwner owner) {
+        RequestScope scope = new RequestScope();
+        owner.getLifecycle().addObserver(scope);
+        return scope;
+    }
+
+    public void track(RequestHandle handle) {
+        synchronized (this) {
+            if (!closed) {
+                handles.add(handle);
+                handle.setScope(this);
+                return;
+            }
+        }
+        handle.cancel();
+    }
+
+    synchronized void remove(RequestHandle handle) {
+        handles.remove(handle);
+    }
+
+    public synchronized int getActiveCount() {
+        return handles.size();
+    }
+
+    /**
+     * Cancel every running request and any started afterwards
+     */
+    public void cancelAll() {
+        List<RequestHandle> active;
+        synchronized (this) {
+            closed = true;
+            active = new ArrayList<>(handles);
+            handles.clear();
+        }
+        for (RequestHandle handle : active) {
+            handle.cancel();
+        }
+        if (!active.isEmpty()) {
+            Log.d(TAG, "Cancelled " + active.size() + " requests");
+        }
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        owner.getLifecycle().removeObserver(this);
+        cancelAll();
+    }
+}
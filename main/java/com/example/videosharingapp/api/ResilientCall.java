@@ -0,0 +1,244 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Runs a Retrofit call within an overall deadline, retrying retryable failures
+ * (IO errors, 429 and 5xx) with exponential backoff and full jitter.
+ *
+ * If hedging is enabled and the first attempt is still running after the endpoint's
+ * observed p95 latency, an identical second request is sent and whichever answers first
+ * wins. Hedges are limited by a token budget in ResiliencePolicy so they add only a small
+ * fraction of extra load. The callback is invoked exactly once, or never if the call is cancelled.
+ */
+public class ResilientCall<T> {
+
+    private static final String TAG = "ResilientCall";
+    private static final Random random = new Random();
+
+    /**
+     * Asked before every extra network attempt (retry or hedge), e.g. to charge quota
+     */
+    public interface AttemptGate {
+        boolean allowExtraAttempt();
+    }
+
+    private final Call<T> original;
+    private final String endpoint;
+    private final ResiliencePolicy policy;
+    private final ResiliencePolicy.EndpointPolicy endpointPolicy;
+    private final AttemptGate gate;
+    private final Callback<T> callback;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private final List<Call<T>> active = new ArrayList<>();
+    private long deadlineAt;
+    private int retries;
+    private boolean launchedOriginal;
+    private boolean hedged;
+    private boolean retryPending;
+    private boolean delivered;
+
+    public ResilientCall(Call<T> original, String endpoint, ResiliencePolicy policy,
+                         AttemptGate gate, Callback<T> callback) {
+        this.original = original;
+        this.endpoint = endpoint;
+        this.policy = policy;
+        this.endpointPolicy = policy.forEndpoint(endpoint);
+        this.gate = gate;
+        this.callback = callback;
+    }
+
+    public void start() {
+        deadlineAt = System.currentTimeMillis() + endpointPolicy.getDeadlineMillis();
+        policy.earnHedgeToken();
+        launchAttempt();
+        scheduleHedge();
+    }
+
+    /**
+     * Cancel every attempt. The callback is not invoked afterwards, so the caller is
+     * responsible for any cleanup it would have done there.
+     */
+    public synchronized void cancel() {
+        if (delivered) {
+            return;
+        }
+        delivered = true;
+        original.cancel();
+        cancelOthers();
+    }
+
+    private synchronized void launchAttempt() {
+        if (delivered) {
+            return;
+        }
+
+        long remaining = deadlineAt - System.currentTimeMillis();
+        if (remaining <= 0) {
+            deliverFailure(new IOException("Deadline of " + endpointPolicy.getDeadlineMillis() + "ms exceeded"));
+            return;
+        }
+
+        Call<T> attempt = launchedOriginal ? original.clone() : original;
+        launchedOriginal = true;
+        attempt.timeout().timeout(remaining, TimeUnit.MILLISECONDS);
+        active.add(attempt);
+
+        attempt.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                onAttemptResponse(call, response);
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                onAttemptFailure(call, t);
+            }
+        });
+    }
+
+    private synchronized void onAttemptResponse(Call<T> attempt, Response<T> response) {
+        active.remove(attempt);
+        if (delivered) {
+            return;
+        }
+
+        if (isRetryable(response.code())) {
+            if (!active.isEmpty()) {
+                return; // A hedge is still running and may succeed
+            }
+            if (scheduleRetry(retryAfterMillis(response))) {
+                Log.w(TAG, endpoint + " returned " + response.code() + ", retrying");
+                return;
+            }
+        }
+
+        delivered = true;
+        cancelOthers();
+        callback.onResponse(original, response);
+    }
+
+    private synchronized void onAttemptFailure(Call<T> attempt, Throwable t) {
+        active.remove(attempt);
+        if (delivered || (attempt.isCanceled() && !original.isCanceled() && !active.isEmpty())) {
+            return;
+        }
+
+        if (!original.isCanceled() && t instanceof IOException) {
+            if (!active.isEmpty()) {
+                return;
+            }
+            if (scheduleRetry(0)) {
+                Log.w(TAG, endpoint + " failed with " + t + ", retrying");
+                return;
+            }
+        }
+
+        deliverFailure(t);
+    }
+
+    /**
+     * Schedule the next retry, returning false if retries or the deadline are used up
+     */
+    private boolean scheduleRetry(long minDelayMillis) {
+        if (retries >= endpointPolicy.getMaxRetries()) {
+            return false;
+        }
+
+        // Full jitter: uniform between 0 and the exponential backoff cap
+        long cap = Math.min(endpointPolicy.getMaxBackoffMillis(),
+                endpointPolicy.getBaseBackoffMillis() << retries);
+        long delay = Math.max(minDelayMillis, (long) (random.nextDouble() * cap));
+        if (System.currentTimeMillis() + delay >= deadlineAt || !gate.allowExtraAttempt()) {
+            return false;
+        }
+
+        retries++;
+        retryPending = true;
+        handler.postDelayed(() -> {
+            synchronized (this) {
+                retryPending = false;
+            }
+            launchAttempt();
+        }, delay);
+        return true;
+    }
+
+    private void scheduleHedge() {
+        if (!endpointPolicy.isHedgingEnabled()) {
+            return;
+        }
+
+        LatencyHistogram latency = NetworkMetrics.getInstance()
+                .forEndpoint(endpoint).getHistogram(NetworkMetrics.Phase.TOTAL);
+        if (latency.getCount() < ResiliencePolicy.MIN_SAMPLES_FOR_HEDGING) {
+            return;
+        }
+
+        long hedgeDelay = Math.max(endpointPolicy.getMinHedgeDelayMillis(), latency.getPercentile(95));
+        handler.postDelayed(() -> {
+            synchronized (this) {
+                if (delivered || hedged || active.isEmpty() || retryPending) {
+                    return;
+                }
+                if (!policy.trySpendHedgeToken() || !gate.allowExtraAttempt()) {
+                    return;
+                }
+                hedged = true;
+            }
+            Log.d(TAG, endpoint + " slower than p95 (" + hedgeDelay + "ms), sending hedged request");
+            launchAttempt();
+        }, hedgeDelay);
+    }
+
+    private void deliverFailure(Throwable t) {
+        if (delivered) {
+            return;
+        }
+        delivered = true;
+        cancelOthers();
+        callback.onFailure(original, t);
+    }
+
+    private void cancelOthers() {
+        handler.removeCallbacksAndMessages(null);
+        for (Call<T> attempt : new ArrayList<>(active)) {
+            attempt.cancel();
+        }
+        active.clear();
+    }
+
+    private static boolean isRetryable(int code) {
+        return code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    private static long retryAfterMillis(Response<?> response) {
+        String retryAfter = response.headers().get("Retry-After");
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration for the on-disk HTTP response cache used by YouTubeApiManager.
+ * Holds the cache size and how long a response from each endpoint is considered fresh
+ * before it has to be revalidated with the server using its ETag.
+ */
+public class ResponseCachePolicy {
+
+    public static final long DEFAULT_MAX_SIZE_BYTES = 10L * 1024 * 1024; // 10 MB
+    public static final long DEFAULT_FRESHNESS_SECONDS = 60;
+
+    private final long maxSizeBytes;
+    private final long defaultFreshnessSeconds;
+    private final Map<String, Long> endpointFreshness = new HashMap<>();
+
+    public ResponseCachePolicy() {
+        this(DEFAULT_MAX_SIZE_BYTES, DEFAULT_FRESHNESS_SECONDS);
+
+        // Channel details rarely change, video listings change more often
+        setFreshness("channels", 6 * 60 * 60);
+        setFreshness("search", 5 * 60);
+        setFreshness("playlistItems", 5 * 60);
+        setFreshness("videos", 30 * 60);
+    }
+
+    public ResponseCachePolicy(long maxSizeBytes, long defaultFreshnessSeconds) {
+        this.maxSizeBytes = maxSizeBytes;
+        this.defaultFreshnessSeconds = defaultFreshnessSeconds;
+    }
+
+    /**
+     * Set the freshness window for an endpoint, e.g. "channels" or "search".
+     * A value of 0 means every request is revalidated with the server.
+     */
+    public ResponseCachePolicy setFreshness(String endpoint, long seconds) {
+        endpointFreshness.put(endpoint, Math.max(0, seconds));
+        return this;
+    }
+
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    /**
+     * Freshness window for a request path relative to the API base URL
+     */
+    public long getFreshnessSeconds(String endpoint) {
+        Long seconds = endpointFreshness.get(endpoint);
+        return seconds != null ? seconds : defaultFreshnessSeconds;
+    }
+}
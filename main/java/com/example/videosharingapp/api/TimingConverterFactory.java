@@ -0,0 +1,115 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+/**
+ * Wraps a converter factory to time response parsing separately from the download.
+ * The body is handed to the converter as a stream, so parsing overlaps the download; time the
+ * converter spends waiting on the network inside read() is subtracted, leaving only the
+ * JSON binding. PARSE is recorded in microseconds since most responses bind in under a millisecond.
+ */
+public class TimingConverterFactory extends Converter.Factory {
+
+    private final Converter.Factory delegate;
+
+    public TimingConverterFactory(Converter.Factory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        Converter<ResponseBody, ?> converter = delegate.responseBodyConverter(type, annotations, retrofit);
+        if (converter == null) {
+            return null;
+        }
+
+        String endpoint = endpointOf(annotations);
+        return body -> {
+            TimedResponseBody timed = new TimedResponseBody(body);
+            long parseStart = System.nanoTime();
+            Object value = converter.convert(timed);
+            long parseNanos = System.nanoTime() - parseStart - timed.readNanos;
+            NetworkMetrics.getInstance().recordPhase(endpoint, NetworkMetrics.Phase.PARSE, parseNanos / 1_000);
+            return value;
+        };
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(Type type, Annotation[] parameterAnnotations,
+                                                                  Annotation[] methodAnnotations, Retrofit retrofit) {
+        return delegate.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+    }
+
+    @Override
+    public Converter<?, String> stringConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        return delegate.stringConverter(type, annotations, retrofit);
+    }
+
+    /**
+     * Passes the body through unchanged while adding up the time spent inside read()
+     */
+    private static class TimedResponseBody extends ResponseBody {
+        private final ResponseBody body;
+        private BufferedSource source;
+        long readNanos;
+
+        TimedResponseBody(ResponseBody body) {
+            this.body = body;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return body.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return body.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            if (source == null) {
+                source = Okio.buffer(new ForwardingSource(body.source()) {
+                    @Override
+                    public long read(Buffer sink, long byteCount) throws IOException {
+                        long readStart = System.nanoTime();
+                        try {
+                            return super.read(sink, byteCount);
+                        } finally {
+                            readNanos += System.nanoTime() - readStart;
+                        }
+                    }
+                });
+            }
+            return source;
+        }
+    }
+
+    private static String endpointOf(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof GET) {
+                return ((GET) annotation).value();
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.videosharingapp.models.YouTubeChannel;
+import com.example.videosharingapp.models.YouTubePlaylistItem;
+import com.example.videosharingapp.models.YouTubePlaylistItemsResponse;
+import com.example.videosharingapp.models.YouTubeVideo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Lists a channel's videos from its uploads playlist instead of the search endpoint.
+ * A playlistItems page costs 1 quota unit where a search costs 100. The uploads playlist ID
+ * comes from the channel's contentDetails and is remembered per channel. Search is only used
+ * when a channel has no usable uploads playlist.
+ *
+ * Page tokens handed out for search-backed pages are prefixed so later pages keep using
+ * the same source as the first one.
+ */
+public class UploadsPlaylistEngine {
+
+    private static final String TAG = "UploadsPlaylistEngine";
+    static final String SEARCH_TOKEN_PREFIX = "search:";
+    private static final String NO_UPLOADS = "";
+
+    /**
+     * Resolves channel info including contentDetails, used to read the uploads playlist ID.
+     * Answers exactly once, and attaches any request it makes to the handle.
+     */
+    public interface ChannelResolver {
+        void resolve(String channelId, RequestScheduler.Priority priority, RequestHandle handle,
+                     YouTubeApiManager.ChannelInfoCallback callback);
+    }
+
+    /**
+     * Fetches a page using the search endpoint
+     */
+    public interface SearchFallback {
+        void requestSearchPage(String channelId, String pageToken, String publishedAfter, int pageSize,
+                               RequestScheduler.Priority priority, RequestHandle handle,
+                               YouTubeApiManager.VideoPageCallback callback);
+    }
+
+    /**
+     * Result of a delta request
+     */
+    public interface DeltaCallback {
+        /** complete is false when there may be more new videos than were returned */
+        void onSuccess(List<YouTubeVideo> newer, boolean complete);
+        void onFailure(String error);
+    }
+
+    private final YouTubeApiService apiService;
+    private final RequestScheduler scheduler;
+    private final String apiKey;
+    private final ChannelResolver channelResolver;
+    private final SearchFallback searchFallback;
+    private final SharedPreferences uploadsStore;
+
+    // Channel ID -> uploads playlist ID, or NO_UPLOADS when the channel needs the search fallback
+    private final Map<String, String> uploadsPlaylistIds = new ConcurrentHashMap<>();
+
+    public UploadsPlaylistEngine(YouTubeApiService apiService, RequestScheduler scheduler, String apiKey,
+                                 ChannelResolver channelResolver, SearchFallback searchFallback,
+                                 SharedPreferences uploadsStore) {
+        this.apiService = apiService;
+        this.scheduler = scheduler;
+        this.apiKey = apiKey;
+        this.channelResolver = channelResolver;
+        this.searchFallback = searchFallback;
+        this.uploadsStore = uploadsStore;
+    }
+
+    /**
+     * Fetch a page of a channel's videos. pageToken is null for the first page,
+     * otherwise a token from a page previously returned by this engine. Every request made
+     * for the page is attached to the handle so cancelling it stops the whole chain.
+     */
+    public void requestPage(String channelId, String pageToken, int pageSize, RequestScheduler.Priority priority,
+                            RequestHandle handle, YouTubeApiManager.VideoPageCallback callback) {
+        if (pageToken != null && pageToken.startsWith(SEARCH_TOKEN_PREFIX)) {
+            requestSearchPage(channelId, pageToken.substring(SEARCH_TOKEN_PREFIX.length()), pageSize,
+                    priority, handle, callback);
+            return;
+        }
+
+        String uploadsId = getCachedUploadsId(channelId);
+        if (uploadsId != null) {
+            if (uploadsId.equals(NO_UPLOADS)) {
+                requestSearchPage(channelId, pageToken, pageSize, priority, handle, callback);
+            } else {
+                requestPlaylistPage(channelId, uploadsId, pageToken, pageSize, priority, handle, callback);
+            }
+            return;
+        }
+
+        channelResolver.resolve(channelId, priority, handle, new YouTubeApiManager.ChannelInfoCallback() {
+            @Override
+            public void onSuccess(YouTubeChannel channel) {
+                if (handle.isCanceled()) {
+                    return;
+                }
+
+                // The resolver always asks for contentDetails, so this means the response was incomplete
+                if (channel.getContentDetails() == null) {
+                    callback.onFailure("Channel details unavailable");
+                    return;
+                }
+
+                String resolved = channel.getUploadsPlaylistId();
+                if (resolved == null || resolved.isEmpty()) {
+                    Log.w(TAG, "Channel has no uploads playlist, using search: " + channelId);
+                    rememberUploadsId(channelId, NO_UPLOADS);
+                    requestSearchPage(channelId, pageToken, pageSize, priority, handle, callback);
+                    return;
+                }
+
+                rememberUploadsId(channelId, resolved);
+                requestPlaylistPage(channelId, resolved, pageToken, pageSize, priority, handle, callback);
+            }
+
+            @Override
+            public void onFailure(String error) {
+                if (!handle.isCanceled()) {
+                    callback.onFailure(error);
+                }
+            }
+        });
+    }
+
+    /**
+     * Fetch only the videos published after the watermark. Search takes publishedAfter directly;
+     * the uploads playlist lists newest first, so one short page is read and cut at the watermark.
+     * A result is incomplete when the page ended before reaching the watermark.
+     */
+    public void requestNewerThan(String channelId, String watermark, int pageSize,
+                                 RequestScheduler.Priority priority, RequestHandle handle,
+                                 DeltaCallback callback) {
+        YouTubeApiManager.VideoPageCallback pageCallback = new YouTubeApiManager.VideoPageCallback() {
+            @Override
+            public void onSuccess(VideoPage page) {
+                List<YouTubeVideo> newer = new ArrayList<>();
+                boolean reachedWatermark = false;
+                for (YouTubeVideo video : page.getVideos()) {
+                    String publishedAt = video.getSnippet() != null ? video.getSnippet().getPublishedAt() : null;
+                    if (publishedAt != null && publishedAt.compareTo(watermark) > 0) {
+                        newer.add(video);
+                    } else {
+                        reachedWatermark = true;
+                    }
+                }
+                callback.onSuccess(newer, reachedWatermark || !page.hasMore());
+            }
+
+            @Override
+            public void onFailure(String error) {
+                callback.onFailure(error);
+            }
+        };
+
+        String uploadsId = getCachedUploadsId(channelId);
+        if (uploadsId == null) {
+            // Source not known yet, let the caller do a full refresh
+            callback.onSuccess(new ArrayList<>(), false);
+        } else if (uploadsId.equals(NO_UPLOADS)) {
+            searchFallback.requestSearchPage(channelId, null, watermark, pageSize, priority, handle, pageCallback);
+        } else {
+            requestPlaylistPage(channelId, uploadsId, null, pageSize, priority, handle, pageCallback);
+        }
+    }
+
+    /**
+     * Uploads playlist ID for a channel if it has already been resolved
+     */
+    public String getUploadsPlaylistId(String channelId) {
+        String uploadsId = getCachedUploadsId(channelId);
+        return uploadsId != null && !uploadsId.equals(NO_UPLOADS) ? uploadsId : null;
+    }
+
+    private void requestPlaylistPage(String channelId, String playlistId, String pageToken, int pageSize,
+                                     RequestScheduler.Priority priority, RequestHandle handle,
+                                     YouTubeApiManager.VideoPageCallback callback) {
+        long startTime = System.currentTimeMillis();
+
+        Log.d(TAG, "Fetching uploads playlist " + playlistId + " for channel ID: " + channelId);
+
+        Call<YouTubePlaylistItemsResponse> call = apiService.getPlaylistItemsPublic(
+                "snippet,contentDetails",
+                playlistId,
+                pageSize,
+                pageToken,
+                apiKey
+        );
+
+        handle.attach(scheduler.enqueue(call, ApiMethod.GET_PLAYLIST_ITEMS, priority, new Callback<YouTubePlaylistItemsResponse>() {
+            @Override
+            public void onResponse(Call<YouTubePlaylistItemsResponse> call, Response<YouTubePlaylistItemsResponse> response) {
+                long duration = System.currentTimeMillis() - startTime;
+                Log.d(TAG, "Playlist items API call completed in: " + duration + "ms");
+
+                if (response.isSuccessful() && response.body() != null) {
+                    YouTubePlaylistItemsResponse itemsResponse = response.body();
+                    List<YouTubeVideo> videos = new ArrayList<>();
+                    if (itemsResponse.getItems() != null) {
+                        for (YouTubePlaylistItem item : itemsResponse.getItems()) {
+                            // Private and deleted videos have no publish time
+                            if (item.getVideoId() != null && !item.getVideoId().isEmpty()
+                                    && item.getContentDetails() != null
+                                    && item.getContentDetails().getVideoPublishedAt() != null) {
+                                videos.add(item.toYouTubeVideo());
+                            }
+                        }
+                    }
+
+                    Log.d(TAG, "Successfully fetched " + videos.size() + " videos from uploads playlist");
+                    callback.onSuccess(new VideoPage(videos, itemsResponse.getNextPageToken()));
+                } else if (response.code() == 404 && pageToken == null) {
+                    // Channels without public uploads have no playlist, search still works for them
+                    Log.w(TAG, "Uploads playlist not found, falling back to search: " + playlistId);
+                    rememberUploadsId(channelId, NO_UPLOADS);
+                    requestSearchPage(channelId, null, pageSize, priority, handle, callback);
+                } else {
+                    Log.e(TAG, "Playlist items API call failed with code: " + response.code());
+                    callback.onFailure("API call failed: " + response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<YouTubePlaylistItemsResponse> call, Throwable t) {
+                long duration = System.currentTimeMillis() - startTime;
+                Log.e(TAG, "Playlist items API call failed after: " + duration + "ms", t);
+                callback.onFailure(t.getMessage() != null ? t.getMessage() : "Network error");
+            }
+        }));
+    }
+
+    private void requestSearchPage(String channelId, String pageToken, int pageSize,
+                                   RequestScheduler.Priority priority, RequestHandle handle,
+                                   YouTubeApiManager.VideoPageCallback callback) {
+        searchFallback.requestSearchPage(channelId, pageToken, null, pageSize, priority, handle, new YouTubeApiManager.VideoPageCallback() {
+            @Override
+            public void onSuccess(VideoPage page) {
+                // Tag the continuation so the next page is also fetched from search
+                String nextToken = page.hasMore() ? SEARCH_TOKEN_PREFIX + page.getNextPageToken() : null;
+                callback.onSuccess(new VideoPage(page.getVideos(), nextToken));
+            }
+
+            @Override
+            public void onFailure(String error) {
+                callback.onFailure(error);
+            }
+        });
+    }
+
+    private String getCachedUploadsId(String channelId) {
+        String uploadsId = uploadsPlaylistIds.get(channelId);
+        if (uploadsId == null && uploadsStore != null) {
+            uploadsId = uploadsStore.getString(channelId, null);
+            if (uploadsId != null) {
+                uploadsPlaylistIds.put(channelId, uploadsId);
+            }
+        }
+        return uploadsId;
+    }
+
+    private void rememberUploadsId(String channelId, String uploadsId) {
+        uploadsPlaylistIds.put(channelId, uploadsId);
+        if (uploadsStore != null) {
+            uploadsStore.edit().putString(channelId, uploadsId).apply();
+        }
+    }
+}
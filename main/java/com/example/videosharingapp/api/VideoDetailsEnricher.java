@@ -0,0 +1,191 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.util.Log;
+import android.util.LruCache;
+
+import com.example.videosharingapp.models.YouTubeVideo;
+import com.example.videosharingapp.models.YouTubeVideoDetails;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attaches duration and view statistics from videos.list to videos that came from search or
+ * playlist pages. IDs are sent 50 per request, so a page costs one request rather than one
+ * per video, and details are cached per video ID so scrolling back or reloading is free.
+ */
+public class VideoDetailsEnricher {
+
+    private static final String TAG = "VideoDetailsEnricher";
+
+    public static final int MAX_IDS_PER_REQUEST = 50;
+    private static final int CACHE_ENTRIES = 500;
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * Performs the actual videos.list request for up to 50 IDs. A cancelled request calls
+     * neither callback method, so the returned handle is how the enricher finds out.
+     */
+    public interface DetailsRequester {
+        RequestHandle requestDetails(List<String> videoIds, DetailsCallback callback);
+    }
+
+    public interface DetailsCallback {
+        void onSuccess(List<YouTubeVideoDetails> details);
+        void onFailure(String error);
+    }
+
+    public interface Listener {
+        /** Details were attached to these videos, which can now be rebound */
+        void onDetailsAttached(List<YouTubeVideo> videos);
+    }
+
+    private static class CachedDetails {
+        final YouTubeVideoDetails details;
+        final long fetchedAtMillis;
+
+        CachedDetails(YouTubeVideoDetails details, long fetchedAtMillis) {
+            this.details = details;
+            this.fetchedAtMillis = fetchedAtMillis;
+        }
+    }
+
+    // Details are shared by every manager, like the HTTP cache
+    private static final LruCache<String, CachedDetails> cache = new LruCache<>(CACHE_ENTRIES);
+
+    private final DetailsRequester requester;
+    private final long ttlMillis;
+    // Video ID -> videos waiting for its details, so an ID is never requested twice at once
+    private final Map<String, List<YouTubeVideo>> waiting = new HashMap<>();
+    private final Map<String, List<Listener>> waitingListeners = new HashMap<>();
+
+    public VideoDetailsEnricher(DetailsRequester requester) {
+        this(requester, DEFAULT_TTL_MILLIS);
+    }
+
+    public VideoDetailsEnricher(DetailsRequester requester, long ttlMillis) {
+        this.requester = requester;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Attach details to the videos. Cached details are attached before this returns and
+     * reported straight away; the rest are fetched and reported as each batch arrives.
+     * Pass the same listener instance on every call so IDs already requested for it are not
+     * reported to it twice. Call on the main thread.
+     */
+    public void enrich(List<YouTubeVideo> videos, Listener listener) {
+        List<YouTubeVideo> attached = new ArrayList<>();
+        Set<String> missing = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+
+        for (YouTubeVideo video : videos) {
+            String videoId = video.getVideoId();
+            if (videoId == null || videoId.isEmpty()) {
+                continue;
+            }
+
+            CachedDetails cached = cache.get(videoId);
+            if (cached != null && now - cached.fetchedAtMillis <= ttlMillis) {
+                video.setDetails(cached.details);
+                attached.add(video);
+                continue;
+            }
+
+            List<YouTubeVideo> pending = waiting.get(videoId);
+            if (pending == null) {
+                pending = new ArrayList<>();
+                waiting.put(videoId, pending);
+                waitingListeners.put(videoId, new ArrayList<>());
+                missing.add(videoId);
+            }
+            pending.add(video);
+            if (!waitingListeners.get(videoId).contains(listener)) {
+                waitingListeners.get(videoId).add(listener);
+            }
+        }
+
+        if (!attached.isEmpty()) {
+            listener.onDetailsAttached(attached);
+        }
+
+        List<String> ids = new ArrayList<>(missing);
+        for (int start = 0; start < ids.size(); start += MAX_IDS_PER_REQUEST) {
+            requestBatch(ids.subList(start, Math.min(ids.size(), start + MAX_IDS_PER_REQUEST)));
+        }
+    }
+
+    private void requestBatch(List<String> videoIds) {
+        List<String> batch = new ArrayList<>(videoIds);
+        Log.d(TAG, "Requesting details for " + batch.size() + " videos");
+
+        RequestHandle handle = requester.requestDetails(batch, new DetailsCallback() {
+            @Override
+            public void onSuccess(List<YouTubeVideoDetails> details) {
+                long now = System.currentTimeMillis();
+                Map<String, YouTubeVideoDetails> byId = new HashMap<>();
+                for (YouTubeVideoDetails item : details) {
+                    if (item.getId() != null) {
+                        byId.put(item.getId(), item);
+                        cache.put(item.getId(), new CachedDetails(item, now));
+                    }
+                }
+
+                // Group the updated videos per listener so each gets one callback per batch
+                Map<Listener, List<YouTubeVideo>> updates = new HashMap<>();
+                for (String videoId : batch) {
+                    List<YouTubeVideo> videos = waiting.remove(videoId);
+                    List<Listener> listeners = waitingListeners.remove(videoId);
+                    YouTubeVideoDetails item = byId.get(videoId);
+                    if (videos == null || item == null) {
+                        continue; // Deleted or private videos are not returned
+                    }
+                    for (YouTubeVideo video : videos) {
+                        video.setDetails(item);
+                    }
+                    for (Listener listener : listeners) {
+                        List<YouTubeVideo> updated = updates.get(listener);
+                        if (updated == null) {
+                            updated = new ArrayList<>();
+                            updates.put(listener, updated);
+                        }
+                        updated.addAll(videos);
+                    }
+                }
+
+                for (Map.Entry<Listener, List<YouTubeVideo>> entry : updates.entrySet()) {
+                    entry.getKey().onDetailsAttached(entry.getValue());
+                }
+            }
+
+            @Override
+            public void onFailure(String error) {
+                // Details are optional, rows simply stay without them
+                Log.w(TAG, "Failed to load video details: " + error);
+                release(batch);
+            }
+        });
+        // Without this a cancelled batch would leave its IDs waiting, and they would never be requested again
+        handle.onCancel(() -> release(batch));
+    }
+
+    /**
+     * Forget the videos waiting on a batch that will not deliver, so a later enrich requests them again
+     */
+    private void release(List<String> batch) {
+        for (String videoId : batch) {
+            waiting.remove(videoId);
+            waitingListeners.remove(videoId);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import com.example.videosharingapp.models.YouTubeVideo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of channel videos plus the continuation token for the next page
+ */
+public class VideoPage {
+
+    private List<YouTubeVideo> videos;
+    private String nextPageToken;
+    // Not persisted, pages read back from the cache are marked through asCached
+    private transient boolean fromCache;
+
+    public VideoPage(List<YouTubeVideo> videos, String nextPageToken) {
+        this.videos = videos != null ? videos : new ArrayList<>();
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * The same page marked as served from the cache rather than the network
+     */
+    public VideoPage asCached() {
+        VideoPage cached = new VideoPage(videos, nextPageToken);
+        cached.fromCache = true;
+        return cached;
+    }
+
+    /**
+     * Whether the page may be stale, so it cannot prove that videos missing from it were deleted
+     */
+    public boolean isFromCache() { return fromCache; }
+
+    public List<YouTubeVideo> getVideos() { return videos; }
+
+    public String getNextPageToken() { return nextPageToken; }
+
+    public boolean hasMore() {
+        return nextPageToken != null && !nextPageToken.isEmpty();
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import android.util.Log;
+
+import com.example.videosharingapp.models.YouTubeVideo;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Walks through a channel's videos page by page, keeping one page buffered ahead of the list.
+ * When the user scrolls near the end the buffered page is appended immediately and the
+ * following page starts loading, so the list never has to wait on the network.
+ */
+public class VideoPager {
+
+    private static final String TAG = "VideoPager";
+
+    public interface Listener {
+        /** The first page was loaded, replacing anything shown before. fromCache pages may be stale. */
+        void onFirstPage(List<YouTubeVideo> videos, boolean hasMore, boolean fromCache);
+        /**
+         * A stale first page was refreshed. newVideos were not shown yet and go in front of the
+         * list, page is the whole refreshed first page. Pages already appended stay as they are.
+         */
+        void onHeadRefreshed(List<YouTubeVideo> newVideos, VideoPage page);
+        /** Another page should be appended to the end of the list */
+        void onPageAppended(List<YouTubeVideo> videos, boolean hasMore);
+        void onFailure(String error, boolean firstPage);
+    }
+
+    private final YouTubeApiManager apiManager;
+    private final String channelId;
+    private final Listener listener;
+
+    private String nextPageToken;
+    private VideoPage prefetchedPage;
+    private boolean prefetching;
+    private boolean appendWhenReady;
+    // Incremented whenever the first page is (re)loaded so late responses for an old chain are dropped
+    private int generation;
+    private RequestHandle firstPageRequest;
+    private RequestHandle prefetchRequest;
+    private boolean canceled;
+    // A stale cached first page is followed by the refreshed one on the same request
+    private boolean firstPageShown;
+    // Playlist pages are offset based, so videos published since the first page can shift repeats into later pages
+    private final Set<String> shownVideoIds = new HashSet<>();
+
+    public VideoPager(YouTubeApiManager apiManager, String channelId, Listener listener) {
+        this.apiManager = apiManager;
+        this.channelId = channelId;
+        this.listener = listener;
+    }
+
+    public void loadFirstPage() {
+        firstPageRequest = apiManager.getChannelVideoPage(channelId, null, new YouTubeApiManager.VideoPageCallback() {
+            @Override
+            public void onSuccess(VideoPage page) {
+                if (canceled) {
+                    return;
+                }
+                if (firstPageShown) {
+                    onFirstPageRefreshed(page);
+                    return;
+                }
+                firstPageShown = true;
+                generation++;
+                nextPageToken = page.getNextPageToken();
+                prefetchedPage = null;
+                prefetching = false;
+                appendWhenReady = false;
+
+                shownVideoIds.clear();
+                listener.onFirstPage(withoutShown(page.getVideos()), page.hasMore(), page.isFromCache());
+                prefetchNextPage();
+            }
+
+            @Override
+            public void onFailure(String error) {
+                if (!canceled) {
+                    listener.onFailure(error, true);
+                }
+            }
+        });
+    }
+
+    /**
+     * Called when the user has scrolled within the prefetch distance of the end of the list
+     */
+    public void onNearEnd() {
+        if (prefetchedPage != null) {
+            VideoPage page = prefetchedPage;
+            prefetchedPage = null;
+            listener.onPageAppended(withoutShown(page.getVideos()), hasMore());
+            prefetchNextPage();
+        } else if (hasMore()) {
+            // The page is still loading (or failed earlier), show it as soon as it arrives
+            appendWhenReady = true;
+            prefetchNextPage();
+        }
+    }
+
+    /**
+     * Stop loading, e.g. when the list switches to another channel. No listener calls follow.
+     */
+    public void cancel() {
+        canceled = true;
+        generation++;
+        prefetching = false;
+        appendWhenReady = false;
+        if (firstPageRequest != null) {
+            firstPageRequest.cancel();
+        }
+        if (prefetchRequest != null) {
+            prefetchRequest.cancel();
+        }
+    }
+
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    public boolean hasMore() {
+        return prefetchedPage != null || (nextPageToken != null && !nextPageToken.isEmpty());
+    }
+
+    /**
+     * Merge a refreshed first page into the head of the list. The continuation chain keeps going
+     * from where it was, since the refreshed page is the same length and its token is position based.
+     */
+    private void onFirstPageRefreshed(VideoPage page) {
+        List<YouTubeVideo> newVideos = withoutShown(page.getVideos());
+        Log.d(TAG, "First page refreshed with " + newVideos.size() + " new videos for channel: " + channelId);
+
+        // The stale page may have been the whole channel while new uploads started a second page
+        if (!hasMore() && !prefetching && page.hasMore()) {
+            nextPageToken = page.getNextPageToken();
+        }
+        listener.onHeadRefreshed(newVideos, page);
+        prefetchNextPage();
+    }
+
+    private void prefetchNextPage() {
+        if (prefetching || prefetchedPage != null || nextPageToken == null || nextPageToken.isEmpty()) {
+            return;
+        }
+
+        prefetching = true;
+        int requestGeneration = generation;
+        Log.d(TAG, "Prefetching next page for channel: " + channelId);
+
+        // Once the user is already waiting at the end of the list this is no longer just a prefetch
+        RequestScheduler.Priority priority = appendWhenReady
+                ? RequestScheduler.Priority.USER : RequestScheduler.Priority.PREFETCH;
+        prefetchRequest = apiManager.getChannelVideoPage(channelId, nextPageToken, priority,
+                new YouTubeApiManager.VideoPageCallback() {
+                    @Override
+                    public void onSuccess(VideoPage page) {
+                        if (requestGeneration != generation) {
+                            return;
+                        }
+                        prefetching = false;
+                        nextPageToken = page.getNextPageToken();
+
+                        if (appendWhenReady) {
+                            appendWhenReady = false;
+                            listener.onPageAppended(withoutShown(page.getVideos()), page.hasMore());
+                            prefetchNextPage();
+                        } else {
+                            prefetchedPage = page;
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(String error) {
+                        if (requestGeneration != generation) {
+                            return;
+                        }
+                        prefetching = false;
+                        Log.w(TAG, "Failed to prefetch next page: " + error);
+                        if (appendWhenReady) {
+                            appendWhenReady = false;
+                            listener.onFailure(error, false);
+                        }
+                    }
+                });
+    }
+
+    private List<YouTubeVideo> withoutShown(List<YouTubeVideo> videos) {
+        List<YouTubeVideo> fresh = new ArrayList<>();
+        for (YouTubeVideo video : videos) {
+            if (shownVideoIds.add(video.getVideoId())) {
+                fresh.add(video);
+            }
+        }
+        return fresh;
+    }
+}
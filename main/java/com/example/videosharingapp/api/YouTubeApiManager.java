@@ -5,33 +5,65 @@
 
 package com.example.videosharingapp.api;
 
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
 import android.util.Log;
 
+import androidx.lifecycle.LifecycleOwner;
+
 import com.example.videosharingapp.models.YouTubeChannel;
 import com.example.videosharingapp.models.YouTubeResponse;
 import com.example.videosharingapp.models.YouTubeVideo;
+import com.example.videosharingapp.models.YouTubeVideoDetailsResponse;
 import com.example.videosharingapp.models.YouTubeVideosResponse;
 import com.google.gson.JsonSyntaxException;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.concurrent.TimeUnit;
+import java.util.Locale;
+import java.util.Set;
 
-import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 public class YouTubeApiManager {
 
     private static final String TAG = "YouTubeApiManager";
     // Replace with your actual YouTube Data API v3 key
     private static final String API_KEY = "";
+    private static final String UPLOADS_PLAYLIST_PREFS = "youtube_uploads_playlists";
+
+    private static RequestScheduler scheduler;
+
+    // Identical requests in flight anywhere in the process share a single call
+    private static final RequestCoalescer<ChannelInfoCallback> channelRequests = new RequestCoalescer<>();
+    private static final RequestCoalescer<VideoPageCallback> videoRequests = new RequestCoalescer<>();
+    private static final RequestCoalescer<ChannelIdCallback> aliasRequests = new RequestCoalescer<>();
+
+    // Prefix of the error for a handle or name that belongs to no channel, as opposed to a failed lookup
+    public static final String CHANNEL_NOT_FOUND = "Channel not found";
+
+    public static final int DEFAULT_VIDEO_PAGE_SIZE = 20;
+    // Videos requested by a delta refresh; more new videos than this triggers a full reload
+    private static final int DELTA_PAGE_SIZE = 10;
 
     private YouTubeApiService apiService;
+    private ChannelDataCache dataCache;
+    private ChannelWatermarks watermarks;
+    private ChannelAliasStore aliasStore;
+    private UploadsPlaylistEngine uploadsEngine;
+    private int videoPageSize = DEFAULT_VIDEO_PAGE_SIZE;
+    private RequestScheduler requestScheduler;
+    private final ChannelBatchLoader channelBatchLoader = new ChannelBatchLoader(this::requestChannelBatch);
+    private final VideoDetailsEnricher videoDetailsEnricher = new VideoDetailsEnricher(this::requestVideoDetails);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private RequestScope requestScope;
 
     // Callback interfaces
     public interface ChannelInfoCallback {
@@ -44,78 +76,420 @@ public class YouTubeApiManager {
         void onFailure(String error);
     }
 
-    public YouTubeApiManager() {
-        setupRetrofit();
+    public interface VideoPageCallback {
+        void onSuccess(VideoPage page);
+        void onFailure(String error);
     }
 
-    private void setupRetrofit() {
-        // Create logging interceptor for debugging
-        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+    public interface ChannelIdCallback {
+        void onSuccess(String channelId);
+        void onFailure(String error);
+    }
 
-        // Create OkHttp client with optimization settings
-        OkHttpClient client = new OkHttpClient.Builder()
-                .addInterceptor(loggingInterceptor)
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .build();
+    private interface AliasLookupCallback {
+        void onFound(String channelId);
+        void onNotFound();
+        void onFailure(String error);
+    }
 
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl(YouTubeApiService.BASE_URL)
-                .client(client)
-                .addConverterFactory(GsonConverterFactory.create())
-                .build();
+    /**
+     * Create a manager with a disk-backed response cache using the default cache policy
+     */
+    public YouTubeApiManager(Context context) {
+        this(context, ApiClientRegistry.getInstance(context).getDefaultCachePolicy());
+    }
 
-        apiService = retrofit.create(YouTubeApiService.class);
+    /**
+     * Create a manager with a disk-backed response cache. Cached responses are revalidated
+     * with If-None-Match once their freshness window has passed.
+     */
+    public YouTubeApiManager(Context context, ResponseCachePolicy cachePolicy) {
+        apiService = ApiClientRegistry.getInstance(context).getService(cachePolicy);
+        dataCache = ChannelDataCache.getInstance(context);
+        watermarks = ChannelWatermarks.getInstance(context);
+        aliasStore = ChannelAliasStore.getInstance(context);
+        requestScheduler = getScheduler(context);
+        setupUploadsEngine(context.getApplicationContext()
+                .getSharedPreferences(UPLOADS_PLAYLIST_PREFS, Context.MODE_PRIVATE));
+    }
+
+    private void setupUploadsEngine(SharedPreferences uploadsStore) {
+        uploadsEngine = new UploadsPlaylistEngine(apiService, requestScheduler, API_KEY,
+                this::resolveUploadsChannel, this::requestSearchVideoPage, uploadsStore);
     }
 
     /**
-     * Get channel information by channel URL or ID (using caching and connection pooling for efficiency)
+     * Channel info for reading the uploads playlist ID. That ID never changes, so a cached channel
+     * is used however old it is, but only if it was saved with its contentDetails. Unlike
+     * getChannelInfo this answers once and never revalidates in the background.
      */
-    public void getChannelInfo(String channelUrlOrId, ChannelInfoCallback callback) {
-        long startTime = System.currentTimeMillis();
+    private void resolveUploadsChannel(String channelId, RequestScheduler.Priority priority, RequestHandle handle,
+                                       ChannelInfoCallback callback) {
+        if (dataCache == null) {
+            fetchChannelInfo(channelId, priority, handle, callback);
+            return;
+        }
+
+        dataCache.getChannel(channelId, entry -> runOnMainThread(() -> {
+            if (handle.isCanceled()) {
+                return;
+            }
+
+            if (entry != null && entry.getValue().getContentDetails() != null) {
+                callback.onSuccess(entry.getValue());
+                return;
+            }
+
+            fetchChannelInfo(channelId, priority, handle, new ChannelInfoCallback() {
+                @Override
+                public void onSuccess(YouTubeChannel channel) {
+                    dataCache.putChannel(channelId, channel);
+                    callback.onSuccess(channel);
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    callback.onFailure(error);
+                }
+            });
+        }));
+    }
+
+    /**
+     * Cancel this manager's requests when the owner is destroyed. Their callbacks are not
+     * invoked afterwards, and shared requests keep running while other callers still wait on them.
+     */
+    public void bindToLifecycle(LifecycleOwner owner) {
+        requestScope = RequestScope.bind(owner);
+    }
+
+    private RequestHandle newRequestHandle() {
+        RequestHandle handle = new RequestHandle();
+        if (requestScope != null) {
+            requestScope.track(handle);
+        }
+        return handle;
+    }
+
+    // Quota is a per-project limit, so every manager schedules against the same budget
+    private static synchronized RequestScheduler getScheduler(Context context) {
+        if (scheduler == null) {
+            scheduler = new RequestScheduler(QuotaBudget.getInstance(context));
+        }
+        return scheduler;
+    }
+
+    /**
+     * Get channel information by channel URL or ID (using caching and connection pooling for efficiency).
+     * Cached data is delivered straight away. If it has expired, a background refresh follows and
+     * the callback is invoked a second time only if the channel changed.
+     */
+    public RequestHandle getChannelInfo(String channelUrlOrId, ChannelInfoCallback callback) {
+        RequestHandle handle = newRequestHandle();
+        resolveChannelId(channelUrlOrId, handle, new ChannelIdCallback() {
+            @Override
+            public void onSuccess(String channelId) {
+                loadChannelInfo(channelId, handle, callback);
+            }
+
+            @Override
+            public void onFailure(String error) {
+                handle.deliver(() -> callback.onFailure(error));
+            }
+        });
+        return handle;
+    }
+
+    private void loadChannelInfo(String channelId, RequestHandle handle, ChannelInfoCallback callback) {
+        if (dataCache == null) {
+            fetchChannelInfo(channelId, RequestScheduler.Priority.USER, handle, new ChannelInfoCallback() {
+                @Override
+                public void onSuccess(YouTubeChannel channel) {
+                    handle.deliver(() -> callback.onSuccess(channel));
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    handle.deliver(() -> callback.onFailure(error));
+                }
+            });
+            return;
+        }
+
+        dataCache.getChannel(channelId, entry -> runOnMainThread(() -> {
+            if (handle.isCanceled()) {
+                return;
+            }
+
+            if (entry == null) {
+                fetchChannelInfo(channelId, RequestScheduler.Priority.USER, handle, new ChannelInfoCallback() {
+                    @Override
+                    public void onSuccess(YouTubeChannel channel) {
+                        dataCache.putChannel(channelId, channel);
+                        handle.deliver(() -> callback.onSuccess(channel));
+                    }
+
+                    @Override
+                    public void onFailure(String error) {
+                        handle.deliver(() -> callback.onFailure(error));
+                    }
+                });
+                return;
+            }
+
+            Log.d(TAG, "Serving cached channel info for ID: " + channelId + (entry.isExpired() ? " (stale)" : ""));
+            callback.onSuccess(entry.getValue());
+            if (!entry.isExpired()) {
+                handle.finish();
+                return;
+            }
+
+            // Stale-while-revalidate: refresh in the background, deliver again only on change
+            dataCache.recordStaleServe();
+            fetchChannelInfo(channelId, RequestScheduler.Priority.BACKGROUND, handle, new ChannelInfoCallback() {
+                @Override
+                public void onSuccess(YouTubeChannel channel) {
+                    handle.finish();
+                    ChannelDataCache.Entry<YouTubeChannel> fresh = dataCache.putChannel(channelId, channel);
+                    if (!fresh.getFingerprint().equals(entry.getFingerprint())) {
+                        callback.onSuccess(channel);
+                    }
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    handle.finish();
+                    Log.w(TAG, "Background channel refresh failed, keeping cached data: " + error);
+                }
+            });
+        }));
+    }
+
+    /**
+     * Resolve a channel ID, channel URL, @handle, or /c/ or /user/ URL to a channel ID.
+     * IDs are returned straight away. Names are looked up in the alias table, so only the
+     * first lookup of a name (or of a name that did not exist) costs a request. A name that
+     * belongs to no channel fails with an error starting with CHANNEL_NOT_FOUND.
+     */
+    public RequestHandle resolveChannelId(String channelUrlOrId, ChannelIdCallback callback) {
+        RequestHandle handle = newRequestHandle();
+        resolveChannelId(channelUrlOrId, handle, new ChannelIdCallback() {
+            @Override
+            public void onSuccess(String channelId) {
+                handle.deliver(() -> callback.onSuccess(channelId));
+            }
 
-        String channelId = extractChannelId(channelUrlOrId);
-        if (channelId == null) {
+            @Override
+            public void onFailure(String error) {
+                handle.deliver(() -> callback.onFailure(error));
+            }
+        });
+        return handle;
+    }
+
+    private void resolveChannelId(String channelUrlOrId, RequestHandle handle, ChannelIdCallback callback) {
+        YouTubeUrlParser.Result link = YouTubeUrlParser.parse(channelUrlOrId);
+        if (link.getKind() == YouTubeUrlParser.Kind.CHANNEL_ID) {
+            callback.onSuccess(link.getChannelId());
+            return;
+        }
+
+        String alias = channelAlias(link);
+        if (alias == null) {
             callback.onFailure("Invalid channel URL or ID");
             return;
         }
 
-        Log.d(TAG, "Fetching channel info for ID: " + channelId);
+        if (aliasStore == null) {
+            fetchChannelAlias(alias, handle, callback);
+            return;
+        }
+
+        aliasStore.lookup(alias, entry -> runOnMainThread(() -> {
+            if (handle.isCanceled()) {
+                return;
+            }
+
+            if (entry == null || entry.isExpired()) {
+                fetchChannelAlias(alias, handle, callback);
+            } else if (entry.isNotFound()) {
+                Log.d(TAG, "Alias " + alias + " is known not to exist");
+                callback.onFailure(CHANNEL_NOT_FOUND + ": " + alias);
+            } else {
+                Log.d(TAG, "Resolved " + alias + " to " + entry.getChannelId() + " from the alias table");
+                callback.onSuccess(entry.getChannelId());
+            }
+        }));
+    }
+
+    private void fetchChannelAlias(String alias, RequestHandle handle, ChannelIdCallback callback) {
+        String key = "alias:" + alias;
+        boolean leader = aliasRequests.join(key, callback);
+        handle.onCancel(() -> aliasRequests.leave(key, callback));
+        if (!leader) {
+            Log.d(TAG, "Joining in-flight lookup for alias: " + alias);
+            return;
+        }
+
+        RequestHandle shared = aliasRequests.getHandle(key);
+        requestChannelAlias(alias, shared, new AliasLookupCallback() {
+            @Override
+            public void onFound(String channelId) {
+                if (aliasStore != null) {
+                    aliasStore.putFound(alias, channelId);
+                }
+                for (ChannelIdCallback waiting : aliasRequests.complete(key, shared)) {
+                    waiting.onSuccess(channelId);
+                }
+            }
+
+            @Override
+            public void onNotFound() {
+                // Remembered so a dead link does not cost a request every time it is opened
+                if (aliasStore != null) {
+                    aliasStore.putNotFound(alias);
+                }
+                for (ChannelIdCallback waiting : aliasRequests.complete(key, shared)) {
+                    waiting.onFailure(CHANNEL_NOT_FOUND + ": " + alias);
+                }
+            }
+
+            @Override
+            public void onFailure(String error) {
+                for (ChannelIdCallback waiting : aliasRequests.complete(key, shared)) {
+                    waiting.onFailure(error);
+                }
+            }
+        });
+    }
+
+    private void requestChannelAlias(String alias, RequestHandle handle, AliasLookupCallback callback) {
+        if (alias.startsWith("@")) {
+            sendAliasLookup(ApiMethod.GET_CHANNEL_INFO_BY_HANDLE, alias, handle, callback);
+        } else if (alias.startsWith("user:")) {
+            sendAliasLookup(ApiMethod.GET_CHANNEL_INFO_BY_USERNAME, alias.substring("user:".length()), handle, callback);
+        } else {
+            // Custom URLs have no lookup of their own; most match the channel's handle, older ones its username
+            String name = alias.substring("c:".length());
+            sendAliasLookup(ApiMethod.GET_CHANNEL_INFO_BY_HANDLE, name, handle, new AliasLookupCallback() {
+                @Override
+                public void onFound(String channelId) {
+                    callback.onFound(channelId);
+                }
+
+                @Override
+                public void onNotFound() {
+                    sendAliasLookup(ApiMethod.GET_CHANNEL_INFO_BY_USERNAME, name, handle, callback);
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    callback.onFailure(error);
+                }
+            });
+        }
+    }
+
+    private void sendAliasLookup(ApiMethod method, String name, RequestHandle handle, AliasLookupCallback callback) {
+        long startTime = System.currentTimeMillis();
+
+        Call<YouTubeResponse> call = method == ApiMethod.GET_CHANNEL_INFO_BY_HANDLE
+                ? apiService.getChannelInfoByHandlePublic("id", name, API_KEY)
+                : apiService.getChannelInfoByUsernamePublic("id", name, API_KEY);
+
+        handle.attach(requestScheduler.enqueue(call, method, RequestScheduler.Priority.USER, new Callback<YouTubeResponse>() {
+            @Override
+            public void onResponse(Call<YouTubeResponse> call, Response<YouTubeResponse> response) {
+                Log.d(TAG, "Channel lookup for " + name + " completed in: "
+                        + (System.currentTimeMillis() - startTime) + "ms");
+
+                if (response.isSuccessful() && response.body() != null) {
+                    List<YouTubeChannel> items = response.body().getItems();
+                    if (items != null && !items.isEmpty() && items.get(0).getId() != null) {
+                        callback.onFound(items.get(0).getId());
+                    } else {
+                        callback.onNotFound();
+                    }
+                } else {
+                    callback.onFailure("API call failed: " + response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<YouTubeResponse> call, Throwable t) {
+                callback.onFailure("Network error: " + t.getMessage());
+            }
+        }));
+    }
+
+    private void fetchChannelInfo(String channelId, RequestScheduler.Priority priority, RequestHandle handle,
+                                  ChannelInfoCallback callback) {
+        String key = "channel:" + channelId;
+        boolean leader = channelRequests.join(key, callback);
+        // Batched lookups are shared with other IDs, so leaving only stops this caller's callback
+        handle.onCancel(() -> channelRequests.leave(key, callback));
+        if (!leader) {
+            Log.d(TAG, "Joining in-flight channel info request for ID: " + channelId);
+            return;
+        }
+
+        RequestHandle shared = channelRequests.getHandle(key);
+        channelBatchLoader.load(channelId, priority, new ChannelInfoCallback() {
+            @Override
+            public void onSuccess(YouTubeChannel channel) {
+                for (ChannelInfoCallback waiting : channelRequests.complete(key, shared)) {
+                    waiting.onSuccess(channel);
+                }
+            }
+
+            @Override
+            public void onFailure(String error) {
+                for (ChannelInfoCallback waiting : channelRequests.complete(key, shared)) {
+                    waiting.onFailure(error);
+                }
+            }
+        });
+    }
+
+    /**
+     * Send one channels request for up to 50 IDs on behalf of the batch loader
+     */
+    private void requestChannelBatch(List<String> channelIds, RequestScheduler.Priority priority,
+                                     ChannelBatchLoader.BatchCallback callback) {
+        long startTime = System.currentTimeMillis();
+
+        Log.d(TAG, "Fetching channel info for IDs: " + channelIds);
 
         Call<YouTubeResponse> call = apiService.getChannelInfoPublic(
-                "snippet,statistics",
-                channelId,
+                "snippet,statistics,contentDetails",
+                TextUtils.join(",", channelIds),
                 API_KEY
         );
 
-        call.enqueue(new Callback<YouTubeResponse>() {
+        requestScheduler.enqueue(call, ApiMethod.GET_CHANNEL_INFO, priority, new Callback<YouTubeResponse>() {
             @Override
             public void onResponse(Call<YouTubeResponse> call, Response<YouTubeResponse> response) {
                 long endTime = System.currentTimeMillis();
                 long duration = endTime - startTime;
 
-                Log.d(TAG, "Channel info API call completed in: " + duration + "ms");
+                Log.d(TAG, "Channel info API call for " + channelIds.size() + " IDs completed in: " + duration + "ms"
+                        + (response.raw().networkResponse() == null ? " (from cache)" : ""));
 
                 /*
                  * API Performance Optimization Notes:
                  * 1. Connection pooling reduces latency for subsequent requests
                  * 2. Request timeout optimization balances reliability vs speed
-                 * 3. Selective field retrieval (part parameter) minimizes data transfer
+                 * 3. Selective field retrieval (part and fields parameters) minimizes data transfer
                  * 4. HTTP/2 support in OkHttp improves multiplexing efficiency
+                 * 5. Batching up to 50 channel IDs per request turns N round trips into ceil(N/50)
                  */
 
                 if (response.isSuccessful() && response.body() != null) {
                     YouTubeResponse youTubeResponse = response.body();
-                    if (youTubeResponse.getItems() != null && !youTubeResponse.getItems().isEmpty()) {
-                        YouTubeChannel channel = youTubeResponse.getItems().get(0);
-                        Log.d(TAG, "Successfully fetched channel: " + channel.getSnippet().getTitle());
-                        callback.onSuccess(channel);
-                    } else {
-                        Log.w(TAG, "No channel found for ID: " + channelId);
-                        callback.onFailure("Channel not found");
-                    }
+                    List<YouTubeChannel> channels = youTubeResponse.getItems() != null
+                            ? youTubeResponse.getItems() : new ArrayList<>();
+                    Log.d(TAG, "Successfully fetched " + channels.size() + " of " + channelIds.size() + " channels");
+                    callback.onSuccess(channels);
                 } else {
                     Log.e(TAG, "API call failed with code: " + response.code());
                     if (response.errorBody() != null) {
@@ -142,29 +516,381 @@ public class YouTubeApiManager {
     }
 
     /**
-     * Get videos from a channel
+     * Get videos from a channel. Uses the same stale-while-revalidate behaviour as getChannelInfo.
+     */
+    public RequestHandle getChannelVideos(String channelId, VideosCallback callback) {
+        return getChannelVideoPage(channelId, null, new VideoPageCallback() {
+            @Override
+            public void onSuccess(VideoPage page) {
+                callback.onSuccess(page.getVideos());
+            }
+
+            @Override
+            public void onFailure(String error) {
+                callback.onFailure(error);
+            }
+        });
+    }
+
+    /**
+     * Get one page of videos from a channel. Pass null as the page token for the first page,
+     * then the token from the previous page to continue. The first page is cached.
+     */
+    public RequestHandle getChannelVideoPage(String channelId, String pageToken, VideoPageCallback callback) {
+        return getChannelVideoPage(channelId, pageToken, RequestScheduler.Priority.USER, callback);
+    }
+
+    /**
+     * Get one page of videos with an explicit scheduling priority, e.g. PREFETCH for pages
+     * loaded ahead of scrolling so they never compete with lists the user is waiting on.
+     */
+    public RequestHandle getChannelVideoPage(String channelId, String pageToken, RequestScheduler.Priority priority,
+                                             VideoPageCallback callback) {
+        RequestHandle handle = newRequestHandle();
+        if (dataCache == null || pageToken != null) {
+            fetchChannelVideoPage(channelId, pageToken, priority, handle, new VideoPageCallback() {
+                @Override
+                public void onSuccess(VideoPage page) {
+                    handle.deliver(() -> callback.onSuccess(page));
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    handle.deliver(() -> callback.onFailure(error));
+                }
+            });
+            return handle;
+        }
+
+        dataCache.getVideoPage(channelId, entry -> runOnMainThread(() -> {
+            if (handle.isCanceled()) {
+                return;
+            }
+
+            if (entry == null) {
+                fetchChannelVideoPage(channelId, null, priority, handle, new VideoPageCallback() {
+                    @Override
+                    public void onSuccess(VideoPage page) {
+                        dataCache.putVideoPage(channelId, page);
+                        watermarks.recordFullRefresh(channelId, page.getVideos());
+                        handle.deliver(() -> callback.onSuccess(page));
+                    }
+
+                    @Override
+                    public void onFailure(String error) {
+                        handle.deliver(() -> callback.onFailure(error));
+                    }
+                });
+                return;
+            }
+
+            Log.d(TAG, "Serving " + entry.getValue().getVideos().size() + " cached videos for channel: " + channelId
+                    + (entry.isExpired() ? " (stale)" : ""));
+            callback.onSuccess(entry.getValue().asCached());
+            if (!entry.isExpired()) {
+                handle.finish();
+                return;
+            }
+
+            dataCache.recordStaleServe();
+            refreshChannelVideoPage(channelId, entry.getValue(), handle, new VideoPageCallback() {
+                @Override
+                public void onSuccess(VideoPage page) {
+                    handle.finish();
+                    ChannelDataCache.Entry<VideoPage> fresh = dataCache.putVideoPage(channelId, page);
+                    if (!fresh.getFingerprint().equals(entry.getFingerprint())) {
+                        callback.onSuccess(page);
+                    }
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    handle.finish();
+                    Log.w(TAG, "Background video refresh failed, keeping cached data: " + error);
+                }
+            });
+        }));
+        return handle;
+    }
+
+    /**
+     * Refresh a cached first page in the background. Usually only videos newer than the channel's
+     * watermark are requested and merged in front of the cached ones. The whole page is reloaded
+     * when no watermark exists, the periodic reconciliation is due (catching deleted videos),
+     * or the delta did not reach back to the watermark.
+     */
+    private void refreshChannelVideoPage(String channelId, VideoPage cached, RequestHandle handle,
+                                         VideoPageCallback callback) {
+        String watermark = watermarks.getWatermark(channelId);
+        if (watermark == null || watermarks.needsFullRefresh(channelId)) {
+            reloadChannelVideoPage(channelId, handle, callback);
+            return;
+        }
+
+        uploadsEngine.requestNewerThan(channelId, watermark, DELTA_PAGE_SIZE, RequestScheduler.Priority.BACKGROUND,
+                handle, new UploadsPlaylistEngine.DeltaCallback() {
+                    @Override
+                    public void onSuccess(List<YouTubeVideo> newer, boolean complete) {
+                        if (!complete) {
+                            Log.d(TAG, "Delta did not reach the watermark, reloading channel: " + channelId);
+                            reloadChannelVideoPage(channelId, handle, callback);
+                            return;
+                        }
+
+                        Log.d(TAG, "Delta refresh found " + newer.size() + " new videos for channel: " + channelId);
+                        watermarks.recordDelta(channelId, newer);
+                        callback.onSuccess(mergeNewer(newer, cached));
+                    }
+
+                    @Override
+                    public void onFailure(String error) {
+                        callback.onFailure(error);
+                    }
+                });
+    }
+
+    private void reloadChannelVideoPage(String channelId, RequestHandle handle, VideoPageCallback callback) {
+        fetchChannelVideoPage(channelId, null, RequestScheduler.Priority.BACKGROUND, handle, new VideoPageCallback() {
+            @Override
+            public void onSuccess(VideoPage page) {
+                watermarks.recordFullRefresh(channelId, page.getVideos());
+                callback.onSuccess(page);
+            }
+
+            @Override
+            public void onFailure(String error) {
+                callback.onFailure(error);
+            }
+        });
+    }
+
+    /**
+     * New videos in front of the cached ones, keeping the cached continuation token. The token
+     * is position based and resumes where the cached page ended, so the merged page is cut back
+     * to the cached length; the videos pushed off the end are what the next page starts with.
      */
-    public void getChannelVideos(String channelId, VideosCallback callback) {
+    private static VideoPage mergeNewer(List<YouTubeVideo> newer, VideoPage cached) {
+        if (newer.isEmpty()) {
+            return cached;
+        }
+
+        List<YouTubeVideo> merged = new ArrayList<>(newer);
+        Set<String> seen = new HashSet<>();
+        for (YouTubeVideo video : newer) {
+            seen.add(video.getVideoId());
+        }
+        for (YouTubeVideo video : cached.getVideos()) {
+            if (seen.add(video.getVideoId())) {
+                merged.add(video);
+            }
+        }
+        // Without a token the cached page was the whole channel, so nothing may be dropped
+        int pageLength = cached.getVideos().size();
+        if (cached.hasMore() && merged.size() > pageLength) {
+            merged = new ArrayList<>(merged.subList(0, pageLength));
+        }
+        return new VideoPage(merged, cached.getNextPageToken());
+    }
+
+    /**
+     * Attach duration and view counts to a page of videos. Cached details are attached at once,
+     * the rest are fetched with one videos.list request per 50 IDs and reported as they arrive.
+     */
+    public void enrichVideos(List<YouTubeVideo> videos, VideoDetailsEnricher.Listener listener) {
+        videoDetailsEnricher.enrich(videos, listener);
+    }
+
+    private RequestHandle requestVideoDetails(List<String> videoIds, VideoDetailsEnricher.DetailsCallback callback) {
         long startTime = System.currentTimeMillis();
+        RequestHandle handle = newRequestHandle();
 
-        Log.d(TAG, "Fetching videos for channel ID: " + channelId);
+        Call<YouTubeVideoDetailsResponse> call = apiService.getVideoDetailsPublic(
+                "contentDetails,statistics",
+                TextUtils.join(",", videoIds),
+                API_KEY
+        );
+
+        // Details decorate rows already on screen, so lists the user is waiting on go first
+        handle.attach(requestScheduler.enqueue(call, ApiMethod.GET_VIDEO_DETAILS, RequestScheduler.Priority.PREFETCH,
+                new Callback<YouTubeVideoDetailsResponse>() {
+                    @Override
+                    public void onResponse(Call<YouTubeVideoDetailsResponse> call,
+                                           Response<YouTubeVideoDetailsResponse> response) {
+                        handle.finish();
+                        Log.d(TAG, "Video details API call for " + videoIds.size() + " IDs completed in: "
+                                + (System.currentTimeMillis() - startTime) + "ms");
+
+                        if (response.isSuccessful() && response.body() != null) {
+                            YouTubeVideoDetailsResponse detailsResponse = response.body();
+                            callback.onSuccess(detailsResponse.getItems() != null
+                                    ? detailsResponse.getItems() : new ArrayList<>());
+                        } else {
+                            callback.onFailure("API call failed: " + response.code());
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<YouTubeVideoDetailsResponse> call, Throwable t) {
+                        handle.finish();
+                        callback.onFailure("Network error: " + t.getMessage());
+                    }
+                }));
+        return handle;
+    }
+
+    /**
+     * Channel suggestions for text typed by the user, debounced and cached so typing a
+     * channel name costs one or two searches rather than one per keystroke
+     */
+    public ChannelTypeahead createChannelTypeahead(ChannelTypeahead.Listener listener) {
+        return new ChannelTypeahead(this::requestChannelSearch, listener);
+    }
+
+    private RequestHandle requestChannelSearch(String query, int maxResults, ChannelTypeahead.SearchCallback callback) {
+        long startTime = System.currentTimeMillis();
+        RequestHandle handle = newRequestHandle();
+
+        Call<YouTubeVideosResponse> call = apiService.searchChannelsPublic(
+                "snippet",
+                query,
+                "channel",
+                maxResults,
+                API_KEY
+        );
+
+        handle.attach(requestScheduler.enqueue(call, ApiMethod.SEARCH_CHANNELS, RequestScheduler.Priority.USER,
+                new Callback<YouTubeVideosResponse>() {
+                    @Override
+                    public void onResponse(Call<YouTubeVideosResponse> call, Response<YouTubeVideosResponse> response) {
+                        handle.finish();
+                        Log.d(TAG, "Channel search for \"" + query + "\" completed in: "
+                                + (System.currentTimeMillis() - startTime) + "ms");
+
+                        if (response.isSuccessful() && response.body() != null) {
+                            List<ChannelTypeahead.Suggestion> suggestions = new ArrayList<>();
+                            List<YouTubeVideo> items = response.body().getItems();
+                            if (items != null) {
+                                for (YouTubeVideo item : items) {
+                                    if (item.getId() != null && item.getId().getChannelId() != null
+                                            && item.getSnippet() != null) {
+                                        suggestions.add(new ChannelTypeahead.Suggestion(
+                                                item.getId().getChannelId(), item.getSnippet().getTitle()));
+                                    }
+                                }
+                            }
+                            callback.onSuccess(suggestions);
+                        } else {
+                            callback.onFailure("API call failed: " + response.code());
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<YouTubeVideosResponse> call, Throwable t) {
+                        handle.deliver(() -> callback.onFailure("Network error: " + t.getMessage()));
+                    }
+                }));
+        return handle;
+    }
+
+    /**
+     * Number of videos requested per page (the API allows 1 to 50)
+     */
+    public void setVideoPageSize(int pageSize) {
+        this.videoPageSize = Math.max(1, Math.min(50, pageSize));
+    }
+
+    /**
+     * Hit, miss and eviction counters for the channel/video cache, or null when caching is disabled
+     */
+    public ChannelDataCache.Stats getCacheStats() {
+        return dataCache != null ? dataCache.getStats() : null;
+    }
+
+    /**
+     * Per-endpoint phase latencies (DNS, connect, TLS, TTFB, download, parse), connection reuse
+     * and response sizes for every call made through the API managers
+     */
+    public NetworkMetrics getNetworkMetrics() {
+        return NetworkMetrics.getInstance();
+    }
+
+    /**
+     * Today's quota consumption, remaining budget and per-method spend
+     */
+    public QuotaBudget getQuotaBudget() {
+        return requestScheduler.getBudget();
+    }
+
+    /**
+     * Deadline, retry and hedging settings, adjustable per endpoint
+     */
+    public ResiliencePolicy getResiliencePolicy() {
+        return requestScheduler.getResiliencePolicy();
+    }
+
+    private void fetchChannelVideoPage(String channelId, String pageToken, RequestScheduler.Priority priority,
+                                       RequestHandle handle, VideoPageCallback callback) {
+        String key = "videos:" + channelId + ":" + videoPageSize + ":" + pageToken;
+        boolean leader = videoRequests.join(key, callback);
+        // The shared request is only cancelled once every caller waiting on it has left
+        handle.onCancel(() -> videoRequests.leave(key, callback));
+        if (!leader) {
+            Log.d(TAG, "Joining in-flight videos request for channel: " + channelId);
+            return;
+        }
+
+        RequestHandle shared = videoRequests.getHandle(key);
+        requestChannelVideoPage(channelId, pageToken, priority, shared, new VideoPageCallback() {
+            @Override
+            public void onSuccess(VideoPage page) {
+                for (VideoPageCallback waiting : videoRequests.complete(key, shared)) {
+                    waiting.onSuccess(page);
+                }
+            }
+
+            @Override
+            public void onFailure(String error) {
+                for (VideoPageCallback waiting : videoRequests.complete(key, shared)) {
+                    waiting.onFailure(error);
+                }
+            }
+        });
+    }
+
+    private void requestChannelVideoPage(String channelId, String pageToken, RequestScheduler.Priority priority,
+                                         RequestHandle handle, VideoPageCallback callback) {
+        // Uploads playlist first (1 quota unit), the engine falls back to search (100 units) when needed
+        uploadsEngine.requestPage(channelId, pageToken, videoPageSize, priority, handle, callback);
+    }
+
+    private void requestSearchVideoPage(String channelId, String pageToken, String publishedAfter, int pageSize,
+                                        RequestScheduler.Priority priority, RequestHandle handle,
+                                        VideoPageCallback callback) {
+        long startTime = System.currentTimeMillis();
+
+        Log.d(TAG, "Searching videos for channel ID: " + channelId
+                + (pageToken != null ? " (page " + pageToken + ")" : "")
+                + (publishedAfter != null ? " published after " + publishedAfter : ""));
 
         Call<YouTubeVideosResponse> call = apiService.getChannelVideosPublic(
                 "snippet",
                 channelId,
                 "video",
                 "date",
-                10, // Limit results for better performance
+                pageSize,
+                pageToken,
+                publishedAfter,
                 API_KEY
         );
 
-        call.enqueue(new Callback<YouTubeVideosResponse>() {
+        handle.attach(requestScheduler.enqueue(call, ApiMethod.GET_CHANNEL_VIDEOS, priority, new Callback<YouTubeVideosResponse>() {
             @Override
             public void onResponse(Call<YouTubeVideosResponse> call, Response<YouTubeVideosResponse> response) {
                 long endTime = System.currentTimeMillis();
                 long duration = endTime - startTime;
 
-                Log.d(TAG, "Channel videos API call completed in: " + duration + "ms");
+                Log.d(TAG, "Channel videos API call completed in: " + duration + "ms"
+                        + (response.raw().networkResponse() == null ? " (from cache)" : ""));
 
                 if (response.isSuccessful() && response.body() != null) {
                     YouTubeVideosResponse videosResponse = response.body();
@@ -178,10 +904,10 @@ public class YouTubeApiManager {
                         }
 
                         Log.d(TAG, "Successfully fetched " + validVideos.size() + " valid videos");
-                        callback.onSuccess(validVideos);
+                        callback.onSuccess(new VideoPage(validVideos, videosResponse.getNextPageToken()));
                     } else {
                         Log.w(TAG, "No videos found for channel: " + channelId);
-                        callback.onSuccess(new ArrayList<>()); // Empty list
+                        callback.onSuccess(new VideoPage(new ArrayList<>(), null)); // Empty list
                     }
                 } else {
                     Log.e(TAG, "Videos API call failed with code: " + response.code());
@@ -214,43 +940,38 @@ public class YouTubeApiManager {
 
                 callback.onFailure(errorMessage);
             }
-        });
+        }));
     }
 
-    /**
-     * Extract channel ID
-     */
-    private String extractChannelId(String input) {
-        if (input == null || input.trim().isEmpty()) {
-            return null;
-        }
-
-        input = input.trim();
-
-        // If it's already a channel ID (24 characters starting with UC)
-        if (input.matches("UC[a-zA-Z0-9_-]{22}")) {
-            return input;
+    private void runOnMainThread(Runnable action) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            action.run();
+        } else {
+            mainHandler.post(action);
         }
+    }
 
-        // Extract from URL patterns
-        try {
-            if (input.contains("youtube.com/channel/")) {
-                String[] parts = input.split("youtube.com/channel/");
-                if (parts.length > 1) {
-                    String channelId = parts[1].split("/")[0].split("\\?")[0];
-                    if (channelId.matches("UC[a-zA-Z0-9_-]{22}")) {
-                        return channelId;
-                    }
-                }
-            } else if (input.contains("youtube.com/c/") || input.contains("youtube.com/user/") || input.contains("youtube.com/@")) {
-                // For testing purposes, use a known channel ID
-                Log.w(TAG, "Custom URL detected, using sample channel ID for testing");
-                return "UCBJycsmduvYEL83R_U4JriQ"; // YouTube Spotlight channel
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error extracting channel ID from: " + input, e);
+    /**
+     * Alias key for a handle or legacy channel name: "@handle", "c:name" or "user:name".
+     * Handles and names are case-insensitive, so keys are lower case.
+     */
+    private static String channelAlias(YouTubeUrlParser.Result link) {
+        String kind;
+        switch (link.getKind()) {
+            case HANDLE:
+                kind = "@";
+                break;
+            case CUSTOM_URL:
+                kind = "c:";
+                break;
+            case USERNAME:
+                kind = "user:";
+                break;
+            default:
+                return null;
         }
 
-        return null;
+        String name = link.getName().indexOf('%') >= 0 ? Uri.decode(link.getName()) : link.getName();
+        return kind + name.toLowerCase(Locale.ROOT);
     }
 }
@@ -5,7 +5,9 @@
 
 package com.example.videosharingapp.api;
 
+import com.example.videosharingapp.models.YouTubePlaylistItemsResponse;
 import com.example.videosharingapp.models.YouTubeResponse;
+import com.example.videosharingapp.models.YouTubeVideoDetailsResponse;
 import com.example.videosharingapp.models.YouTubeVideosResponse;
 
 import retrofit2.Call;
@@ -21,6 +23,7 @@ public interface YouTubeApiService {
      * Get channel information by channel ID
      */
     @GET("channels")
+    @ResponseFields(FieldProjection.CHANNEL_INFO)
     Call<YouTubeResponse> getChannelInfoPublic(
             @Query("part") String part,
             @Query("id") String channelId,
@@ -31,16 +34,29 @@ public interface YouTubeApiService {
      * Get channel information by username
      */
     @GET("channels")
+    @ResponseFields(FieldProjection.CHANNEL_ID)
     Call<YouTubeResponse> getChannelInfoByUsernamePublic(
             @Query("part") String part,
             @Query("forUsername") String username,
             @Query("key") String apiKey
     );
 
+    /**
+     * Get channel information by handle, with or without the leading @
+     */
+    @GET("channels")
+    @ResponseFields(FieldProjection.CHANNEL_ID)
+    Call<YouTubeResponse> getChannelInfoByHandlePublic(
+            @Query("part") String part,
+            @Query("forHandle") String handle,
+            @Query("key") String apiKey
+    );
+
     /**
      * Search for channels
      */
     @GET("search")
+    @ResponseFields(FieldProjection.CHANNEL_SEARCH)
     Call<YouTubeVideosResponse> searchChannelsPublic(
             @Query("part") String part,
             @Query("q") String query,
@@ -50,15 +66,43 @@ public interface YouTubeApiService {
     );
 
     /**
-     * Get videos from a channel
+     * Get videos from a channel. pageToken may be null for the first page, publishedAfter
+     * (RFC 3339) may be null or restrict the results to videos published since then.
      */
     @GET("search")
+    @ResponseFields(FieldProjection.CHANNEL_VIDEOS)
     Call<YouTubeVideosResponse> getChannelVideosPublic(
             @Query("part") String part,
             @Query("channelId") String channelId,
             @Query("type") String type,
             @Query("order") String order,
             @Query("maxResults") int maxResults,
+            @Query("pageToken") String pageToken,
+            @Query("publishedAfter") String publishedAfter,
+            @Query("key") String apiKey
+    );
+
+    /**
+     * Get items from a playlist, e.g. a channel's uploads playlist (1 quota unit vs 100 for search)
+     */
+    @GET("playlistItems")
+    @ResponseFields(FieldProjection.PLAYLIST_ITEMS)
+    Call<YouTubePlaylistItemsResponse> getPlaylistItemsPublic(
+            @Query("part") String part,
+            @Query("playlistId") String playlistId,
+            @Query("maxResults") int maxResults,
+            @Query("pageToken") String pageToken,
+            @Query("key") String apiKey
+    );
+
+    /**
+     * Get duration and statistics for up to 50 comma-separated video IDs (1 quota unit)
+     */
+    @GET("videos")
+    @ResponseFields(FieldProjection.VIDEO_DETAILS)
+    Call<YouTubeVideoDetailsResponse> getVideoDetailsPublic(
+            @Query("part") String part,
+            @Query("id") String ids,
             @Query("key") String apiKey
     );
 }
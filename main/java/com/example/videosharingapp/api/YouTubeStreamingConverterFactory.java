@@ -0,0 +1,453 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import com.example.videosharingapp.models.YouTubeChannel;
+import com.example.videosharingapp.models.YouTubePlaylistItem;
+import com.example.videosharingapp.models.YouTubePlaylistItemsResponse;
+import com.example.videosharingapp.models.YouTubeResponse;
+import com.example.videosharingapp.models.YouTubeVideo;
+import com.example.videosharingapp.models.YouTubeVideosResponse;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Hand-written streaming decoder for the YouTube list responses.
+ *
+ * Reads straight from the response with a JsonReader into the model classes instead of
+ * binding reflectively through Gson. Fields the app never reads (kind, etags, video
+ * descriptions, the default/high thumbnails, localized blocks...) are skipped without
+ * building strings or objects for them. Types it does not know are left to the next
+ * converter factory.
+ */
+public class YouTubeStreamingConverterFactory extends Converter.Factory {
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        if (type == YouTubeVideosResponse.class) {
+            return body -> decode(body, YouTubeStreamingConverterFactory::readVideosResponse);
+        }
+        if (type == YouTubeResponse.class) {
+            return body -> decode(body, YouTubeStreamingConverterFactory::readChannelsResponse);
+        }
+        if (type == YouTubePlaylistItemsResponse.class) {
+            return body -> decode(body, YouTubeStreamingConverterFactory::readPlaylistItemsResponse);
+        }
+        return null;
+    }
+
+    private interface Reader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    private static <T> T decode(ResponseBody body, Reader<T> objectReader) throws IOException {
+        try (JsonReader reader = new JsonReader(body.charStream())) {
+            return objectReader.read(reader);
+        }
+    }
+
+    // ---- search ----
+
+    static YouTubeVideosResponse readVideosResponse(JsonReader reader) throws IOException {
+        YouTubeVideosResponse response = new YouTubeVideosResponse();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "items":
+                    List<YouTubeVideo> items = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        items.add(readVideo(reader));
+                    }
+                    reader.endArray();
+                    response.setItems(items);
+                    break;
+                case "nextPageToken":
+                    response.setNextPageToken(nextStringOrNull(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return response;
+    }
+
+    private static YouTubeVideo readVideo(JsonReader reader) throws IOException {
+        YouTubeVideo video = new YouTubeVideo();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    video.setId(readVideoId(reader));
+                    break;
+                case "snippet":
+                    video.setSnippet(readVideoSnippet(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return video;
+    }
+
+    private static YouTubeVideo.VideoId readVideoId(JsonReader reader) throws IOException {
+        YouTubeVideo.VideoId id = new YouTubeVideo.VideoId();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "kind":
+                    id.setKind(nextStringOrNull(reader));
+                    break;
+                case "videoId":
+                    id.setVideoId(nextStringOrNull(reader));
+                    break;
+                case "channelId":
+                    id.setChannelId(nextStringOrNull(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return id;
+    }
+
+    private static YouTubeVideo.VideoSnippet readVideoSnippet(JsonReader reader) throws IOException {
+        YouTubeVideo.VideoSnippet snippet = new YouTubeVideo.VideoSnippet();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "title":
+                    snippet.setTitle(nextStringOrNull(reader));
+                    break;
+                case "channelId":
+                    snippet.setChannelId(nextStringOrNull(reader));
+                    break;
+                case "channelTitle":
+                    snippet.setChannelTitle(nextStringOrNull(reader));
+                    break;
+                case "publishedAt":
+                    snippet.setPublishedAt(nextStringOrNull(reader));
+                    break;
+                case "thumbnails":
+                    snippet.setThumbnails(readThumbnails(reader, false));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return snippet;
+    }
+
+    // ---- channels ----
+
+    static YouTubeResponse readChannelsResponse(JsonReader reader) throws IOException {
+        YouTubeResponse response = new YouTubeResponse();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "items":
+                    List<YouTubeChannel> items = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        items.add(readChannel(reader));
+                    }
+                    reader.endArray();
+                    response.setItems(items);
+                    break;
+                case "pageInfo":
+                    response.setPageInfo(readPageInfo(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return response;
+    }
+
+    private static YouTubeChannel readChannel(JsonReader reader) throws IOException {
+        YouTubeChannel channel = new YouTubeChannel();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    channel.setId(nextStringOrNull(reader));
+                    break;
+                case "snippet":
+                    channel.setSnippet(readChannelSnippet(reader));
+                    break;
+                case "statistics":
+                    channel.setStatistics(readChannelStatistics(reader));
+                    break;
+                case "contentDetails":
+                    channel.setContentDetails(readChannelContentDetails(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return channel;
+    }
+
+    private static YouTubeChannel.ChannelSnippet readChannelSnippet(JsonReader reader) throws IOException {
+        YouTubeChannel.ChannelSnippet snippet = new YouTubeChannel.ChannelSnippet();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "title":
+                    snippet.setTitle(nextStringOrNull(reader));
+                    break;
+                case "description":
+                    snippet.setDescription(nextStringOrNull(reader));
+                    break;
+                case "thumbnails":
+                    snippet.setThumbnails(readThumbnails(reader, true));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return snippet;
+    }
+
+    private static YouTubeChannel.ChannelStatistics readChannelStatistics(JsonReader reader) throws IOException {
+        YouTubeChannel.ChannelStatistics statistics = new YouTubeChannel.ChannelStatistics();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "subscriberCount":
+                    statistics.setSubscriberCount(nextStringOrNull(reader));
+                    break;
+                case "videoCount":
+                    statistics.setVideoCount(nextStringOrNull(reader));
+                    break;
+                case "viewCount":
+                    statistics.setViewCount(nextStringOrNull(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return statistics;
+    }
+
+    private static YouTubeChannel.ChannelContentDetails readChannelContentDetails(JsonReader reader) throws IOException {
+        YouTubeChannel.ChannelContentDetails contentDetails = new YouTubeChannel.ChannelContentDetails();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("relatedPlaylists")) {
+                YouTubeChannel.RelatedPlaylists playlists = new YouTubeChannel.RelatedPlaylists();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("uploads")) {
+                        playlists.setUploads(nextStringOrNull(reader));
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                contentDetails.setRelatedPlaylists(playlists);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return contentDetails;
+    }
+
+    private static YouTubeResponse.PageInfo readPageInfo(JsonReader reader) throws IOException {
+        YouTubeResponse.PageInfo pageInfo = new YouTubeResponse.PageInfo();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "totalResults":
+                    pageInfo.setTotalResults(reader.nextInt());
+                    break;
+                case "resultsPerPage":
+                    pageInfo.setResultsPerPage(reader.nextInt());
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return pageInfo;
+    }
+
+    // ---- playlistItems ----
+
+    static YouTubePlaylistItemsResponse readPlaylistItemsResponse(JsonReader reader) throws IOException {
+        YouTubePlaylistItemsResponse response = new YouTubePlaylistItemsResponse();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "items":
+                    List<YouTubePlaylistItem> items = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        items.add(readPlaylistItem(reader));
+                    }
+                    reader.endArray();
+                    response.setItems(items);
+                    break;
+                case "nextPageToken":
+                    response.setNextPageToken(nextStringOrNull(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return response;
+    }
+
+    private static YouTubePlaylistItem readPlaylistItem(JsonReader reader) throws IOException {
+        YouTubePlaylistItem item = new YouTubePlaylistItem();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "snippet":
+                    item.setSnippet(readPlaylistItemSnippet(reader));
+                    break;
+                case "contentDetails":
+                    YouTubePlaylistItem.PlaylistItemContentDetails contentDetails =
+                            new YouTubePlaylistItem.PlaylistItemContentDetails();
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "videoId":
+                                contentDetails.setVideoId(nextStringOrNull(reader));
+                                break;
+                            case "videoPublishedAt":
+                                contentDetails.setVideoPublishedAt(nextStringOrNull(reader));
+                                break;
+                            default:
+                                reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    item.setContentDetails(contentDetails);
+                    break;
+                default:
+                    // The playlist item's own ID is never used
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return item;
+    }
+
+    private static YouTubePlaylistItem.PlaylistItemSnippet readPlaylistItemSnippet(JsonReader reader) throws IOException {
+        YouTubePlaylistItem.PlaylistItemSnippet snippet = new YouTubePlaylistItem.PlaylistItemSnippet();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "title":
+                    snippet.setTitle(nextStringOrNull(reader));
+                    break;
+                case "channelId":
+                    snippet.setChannelId(nextStringOrNull(reader));
+                    break;
+                case "channelTitle":
+                    snippet.setChannelTitle(nextStringOrNull(reader));
+                    break;
+                case "videoOwnerChannelId":
+                    snippet.setVideoOwnerChannelId(nextStringOrNull(reader));
+                    break;
+                case "videoOwnerChannelTitle":
+                    snippet.setVideoOwnerChannelTitle(nextStringOrNull(reader));
+                    break;
+                case "publishedAt":
+                    snippet.setPublishedAt(nextStringOrNull(reader));
+                    break;
+                case "thumbnails":
+                    snippet.setThumbnails(readThumbnails(reader, false));
+                    break;
+                case "resourceId":
+                    YouTubePlaylistItem.ResourceId resourceId = new YouTubePlaylistItem.ResourceId();
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (reader.nextName().equals("videoId")) {
+                            resourceId.setVideoId(nextStringOrNull(reader));
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    snippet.setResourceId(resourceId);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return snippet;
+    }
+
+    // ---- shared ----
+
+    /**
+     * Read a thumbnails block. Video lists only ever show one size, so unless allSizes is set
+     * only the medium thumbnail is kept and the others are skipped.
+     */
+    private static YouTubeChannel.Thumbnails readThumbnails(JsonReader reader, boolean allSizes) throws IOException {
+        YouTubeChannel.Thumbnails thumbnails = new YouTubeChannel.Thumbnails();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String size = reader.nextName();
+            if (size.equals("medium")) {
+                thumbnails.setMedium(readThumbnail(reader));
+            } else if (allSizes && size.equals("default")) {
+                thumbnails.setDefaultThumbnail(readThumbnail(reader));
+            } else if (allSizes && size.equals("high")) {
+                thumbnails.setHigh(readThumbnail(reader));
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return thumbnails;
+    }
+
+    private static YouTubeChannel.Thumbnail readThumbnail(JsonReader reader) throws IOException {
+        YouTubeChannel.Thumbnail thumbnail = new YouTubeChannel.Thumbnail();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("url")) {
+                thumbnail.setUrl(nextStringOrNull(reader));
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return thumbnail;
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+}
@@ -0,0 +1,296 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+/**
+ * Classifies YouTube links and bare IDs in one pass over the input, without regular
+ * expressions or intermediate strings. The input is scanned by index and only the IDs
+ * that end up in the result are copied out, so it is cheap enough to call on every keystroke.
+ *
+ * Recognised forms, on www., m. and music. hosts as well as youtube-nocookie.com:
+ * watch?v=, youtu.be/, embed/, shorts/, live/ and v/ video links, playlist?list= and a list
+ * alongside a video, t= and start= timestamps (90, 90s, 1m30s, 1h2m3s), channel/UC... links,
+ * /@handle, /c/name and /user/name, plus bare channel IDs and @handles.
+ *
+ * A bare 11 character video ID is not accepted, as with the old URL pattern: too many ordinary
+ * words look like one. YouTubeUrlCorpus in the test sources lists the expected result for every
+ * supported form.
+ */
+public final class YouTubeUrlParser {
+
+    public enum Kind {
+        VIDEO,
+        PLAYLIST,
+        CHANNEL_ID,
+        HANDLE,
+        CUSTOM_URL,
+        USERNAME,
+        INVALID
+    }
+
+    /**
+     * What the input refers to. Video links may also carry a playlist ID and a start time.
+     */
+    public static final class Result {
+        private static final Result INVALID = new Result(Kind.INVALID, null, null, null, null, 0);
+
+        private final Kind kind;
+        private final String videoId;
+        private final String playlistId;
+        private final String channelId;
+        private final String name;
+        private final int startSeconds;
+
+        private Result(Kind kind, String videoId, String playlistId, String channelId, String name,
+                       int startSeconds) {
+            this.kind = kind;
+            this.videoId = videoId;
+            this.playlistId = playlistId;
+            this.channelId = channelId;
+            this.name = name;
+            this.startSeconds = startSeconds;
+        }
+
+        public Kind getKind() { return kind; }
+        public String getVideoId() { return videoId; }
+        public String getPlaylistId() { return playlistId; }
+        public String getChannelId() { return channelId; }
+        /** Handle (without the @), custom URL name or username, as written in the link */
+        public String getName() { return name; }
+        public int getStartSeconds() { return startSeconds; }
+
+        /**
+         * True for every form that names a channel, whether by ID or by name
+         */
+        public boolean isChannel() {
+            return kind == Kind.CHANNEL_ID || kind == Kind.HANDLE
+                    || kind == Kind.CUSTOM_URL || kind == Kind.USERNAME;
+        }
+    }
+
+    private static final int VIDEO_ID_LENGTH = 11;
+    private static final int CHANNEL_ID_LENGTH = 24;
+
+    private YouTubeUrlParser() {
+    }
+
+    public static Result parse(String input) {
+        if (input == null) {
+            return Result.INVALID;
+        }
+
+        int start = 0;
+        int end = input.length();
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return Result.INVALID;
+        }
+
+        // Bare handle or channel ID
+        if (input.charAt(start) == '@') {
+            return nameResult(Kind.HANDLE, input, start + 1, end);
+        }
+        if (isIdRange(input, start, end)) {
+            return channelIdResult(input, start, end);
+        }
+
+        // Scheme and host
+        int pos = start;
+        if (startsWithIgnoreCase(input, pos, end, "https://")) {
+            pos += 8;
+        } else if (startsWithIgnoreCase(input, pos, end, "http://")) {
+            pos += 7;
+        }
+        int hostEnd = pos;
+        while (hostEnd < end && !isPathDelimiter(input.charAt(hostEnd))) {
+            hostEnd++;
+        }
+        if (startsWithIgnoreCase(input, pos, hostEnd, "www.")) {
+            pos += 4;
+        } else if (startsWithIgnoreCase(input, pos, hostEnd, "m.")) {
+            pos += 2;
+        } else if (startsWithIgnoreCase(input, pos, hostEnd, "music.")) {
+            pos += 6;
+        }
+        boolean shortHost = equalsIgnoreCase(input, pos, hostEnd, "youtu.be");
+        if (!shortHost && !equalsIgnoreCase(input, pos, hostEnd, "youtube.com")
+                && !equalsIgnoreCase(input, pos, hostEnd, "youtube-nocookie.com")) {
+            return Result.INVALID;
+        }
+
+        // First two path segments
+        int pathEnd = hostEnd;
+        while (pathEnd < end && input.charAt(pathEnd) != '?' && input.charAt(pathEnd) != '#') {
+            pathEnd++;
+        }
+        int segmentStart = hostEnd < pathEnd ? hostEnd + 1 : pathEnd;
+        int segmentEnd = indexOf(input, '/', segmentStart, pathEnd);
+        int nextStart = segmentEnd < pathEnd ? segmentEnd + 1 : pathEnd;
+        int nextEnd = indexOf(input, '/', nextStart, pathEnd);
+
+        // Query and fragment parameters: v, list, and t or start
+        int videoStart = -1;
+        int videoEnd = -1;
+        int listStart = -1;
+        int listEnd = -1;
+        int startSeconds = 0;
+        int param = pathEnd;
+        while (param < end) {
+            param++; // Skip the ?, & or # before the parameter
+            int paramEnd = param;
+            while (paramEnd < end && input.charAt(paramEnd) != '&' && input.charAt(paramEnd) != '#'
+                    && input.charAt(paramEnd) != '?') {
+                paramEnd++;
+            }
+            int equals = indexOf(input, '=', param, paramEnd);
+            if (equals < paramEnd) {
+                if (equalsIgnoreCase(input, param, equals, "v")) {
+                    videoStart = equals + 1;
+                    videoEnd = paramEnd;
+                } else if (equalsIgnoreCase(input, param, equals, "list")) {
+                    listStart = equals + 1;
+                    listEnd = paramEnd;
+                } else if (equalsIgnoreCase(input, param, equals, "t")
+                        || equalsIgnoreCase(input, param, equals, "start")) {
+                    startSeconds = parseTimestamp(input, equals + 1, paramEnd);
+                }
+            }
+            param = paramEnd;
+        }
+
+        String playlistId = listStart >= 0 && listEnd - listStart >= 2 && isIdRange(input, listStart, listEnd)
+                ? input.substring(listStart, listEnd) : null;
+
+        if (shortHost) {
+            videoStart = segmentStart;
+            videoEnd = segmentEnd;
+        } else if (equalsIgnoreCase(input, segmentStart, segmentEnd, "embed")
+                || equalsIgnoreCase(input, segmentStart, segmentEnd, "shorts")
+                || equalsIgnoreCase(input, segmentStart, segmentEnd, "live")
+                || equalsIgnoreCase(input, segmentStart, segmentEnd, "v")) {
+            videoStart = nextStart;
+            videoEnd = nextEnd;
+        } else if (equalsIgnoreCase(input, segmentStart, segmentEnd, "channel")) {
+            return isIdRange(input, nextStart, nextEnd) ? channelIdResult(input, nextStart, nextEnd) : Result.INVALID;
+        } else if (equalsIgnoreCase(input, segmentStart, segmentEnd, "c")) {
+            return nameResult(Kind.CUSTOM_URL, input, nextStart, nextEnd);
+        } else if (equalsIgnoreCase(input, segmentStart, segmentEnd, "user")) {
+            return nameResult(Kind.USERNAME, input, nextStart, nextEnd);
+        } else if (segmentStart < segmentEnd && input.charAt(segmentStart) == '@') {
+            return nameResult(Kind.HANDLE, input, segmentStart + 1, segmentEnd);
+        } else if (!equalsIgnoreCase(input, segmentStart, segmentEnd, "watch")
+                && !equalsIgnoreCase(input, segmentStart, segmentEnd, "playlist")) {
+            return Result.INVALID;
+        }
+
+        if (videoStart >= 0 && videoEnd - videoStart == VIDEO_ID_LENGTH && isIdRange(input, videoStart, videoEnd)) {
+            return new Result(Kind.VIDEO, input.substring(videoStart, videoEnd), playlistId, null, null, startSeconds);
+        }
+        if (playlistId != null) {
+            return new Result(Kind.PLAYLIST, null, playlistId, null, null, 0);
+        }
+        return Result.INVALID;
+    }
+
+    /**
+     * Video ID from a video link, or null
+     */
+    public static String parseVideoId(String input) {
+        return parse(input).getVideoId();
+    }
+
+    /**
+     * Channel ID from a channel link or bare ID, or null. Handles and names need an API lookup.
+     */
+    public static String parseChannelId(String input) {
+        return parse(input).getChannelId();
+    }
+
+    private static Result channelIdResult(String input, int start, int end) {
+        if (end - start == CHANNEL_ID_LENGTH && input.startsWith("UC", start)) {
+            return new Result(Kind.CHANNEL_ID, null, null, input.substring(start, end), null, 0);
+        }
+        return Result.INVALID;
+    }
+
+    private static Result nameResult(Kind kind, String input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c <= ' ' || isPathDelimiter(c) || c == '@') {
+                return Result.INVALID;
+            }
+        }
+        return start < end ? new Result(kind, null, null, null, input.substring(start, end), 0) : Result.INVALID;
+    }
+
+    /**
+     * Seconds from "90", "90s", "1m30s" or "1h2m3s". Stops at the first character it does not expect.
+     */
+    private static int parseTimestamp(String input, int start, int end) {
+        int total = 0;
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (value > 10_000) {
+                    break; // Longer than any real video
+                }
+                value = value * 10 + (c - '0');
+            } else if (c == 'h' || c == 'H') {
+                total += value * 3600;
+                value = 0;
+            } else if (c == 'm' || c == 'M') {
+                total += value * 60;
+                value = 0;
+            } else if (c == 's' || c == 'S') {
+                total += value;
+                value = 0;
+            } else {
+                break;
+            }
+        }
+        return total + value;
+    }
+
+    private static boolean isIdRange(String input, int start, int end) {
+        if (start >= end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPathDelimiter(char c) {
+        return c == '/' || c == '?' || c == '#';
+    }
+
+    private static int indexOf(String input, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (input.charAt(i) == c) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static boolean startsWithIgnoreCase(String input, int start, int end, String prefix) {
+        return end - start >= prefix.length() && input.regionMatches(true, start, prefix, 0, prefix.length());
+    }
+
+    private static boolean equalsIgnoreCase(String input, int start, int end, String value) {
+        return end - start == value.length() && input.regionMatches(true, start, value, 0, value.length());
+    }
+}
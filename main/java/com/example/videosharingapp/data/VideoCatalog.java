@@ -0,0 +1,421 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import com.example.videosharingapp.models.YouTubeChannel;
+import com.example.videosharingapp.models.YouTubeVideo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local SQLite store for channels and videos. Writes are batched into a single transaction
+ * with one compiled statement, and video reads use the (channel_id, published_at) index.
+ *
+ * Methods block on disk I/O, so call them off the main thread (see VideoRepository).
+ */
+public class VideoCatalog {
+
+    private static final String TAG = "VideoCatalog";
+
+    private static final String DATABASE_NAME = "video_catalog.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE_CHANNELS = "channels";
+    private static final String TABLE_VIDEOS = "videos";
+
+    // Channel columns
+    private static final String COLUMN_CHANNEL_ID = "channel_id";
+    private static final String COLUMN_TITLE = "title";
+    private static final String COLUMN_DESCRIPTION = "description";
+    private static final String COLUMN_THUMBNAIL_DEFAULT = "thumbnail_default";
+    private static final String COLUMN_THUMBNAIL_MEDIUM = "thumbnail_medium";
+    private static final String COLUMN_THUMBNAIL_HIGH = "thumbnail_high";
+    private static final String COLUMN_SUBSCRIBER_COUNT = "subscriber_count";
+    private static final String COLUMN_VIDEO_COUNT = "video_count";
+    private static final String COLUMN_VIEW_COUNT = "view_count";
+    private static final String COLUMN_UPLOADS_PLAYLIST_ID = "uploads_playlist_id";
+    private static final String COLUMN_UPDATED_AT = "updated_at";
+
+    // Video columns (channel_id, title, description, thumbnail_medium and updated_at are shared)
+    private static final String COLUMN_VIDEO_ID = "video_id";
+    private static final String COLUMN_CHANNEL_TITLE = "channel_title";
+    private static final String COLUMN_PUBLISHED_AT = "published_at";
+
+    /**
+     * Response paths read by upsertChannels, checked against the channels.list mask by FieldProjection
+     */
+    public static final String[] STORED_CHANNEL_PATHS = {
+            "items.id",
+            "items.snippet.title",
+            "items.snippet.description",
+            "items.snippet.thumbnails.default.url",
+            "items.snippet.thumbnails.medium.url",
+            "items.snippet.thumbnails.high.url",
+            "items.statistics.subscriberCount",
+            "items.statistics.videoCount",
+            "items.statistics.viewCount",
+            "items.contentDetails.relatedPlaylists.uploads"
+    };
+
+    private static VideoCatalog instance;
+
+    private final DbHelper dbHelper;
+
+    /**
+     * Creates the tables and the indexes used by the video queries
+     */
+    private static class DbHelper extends SQLiteOpenHelper {
+
+        DbHelper(Context context) {
+            super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+        }
+
+        @Override
+        public void onConfigure(SQLiteDatabase db) {
+            super.onConfigure(db);
+            // Readers never block on the writer
+            db.enableWriteAheadLogging();
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + TABLE_CHANNELS + " ("
+                    + COLUMN_CHANNEL_ID + " TEXT PRIMARY KEY, "
+                    + COLUMN_TITLE + " TEXT, "
+                    + COLUMN_DESCRIPTION + " TEXT, "
+                    + COLUMN_THUMBNAIL_DEFAULT + " TEXT, "
+                    + COLUMN_THUMBNAIL_MEDIUM + " TEXT, "
+                    + COLUMN_THUMBNAIL_HIGH + " TEXT, "
+                    + COLUMN_SUBSCRIBER_COUNT + " TEXT, "
+                    + COLUMN_VIDEO_COUNT + " TEXT, "
+                    + COLUMN_VIEW_COUNT + " TEXT, "
+                    + COLUMN_UPLOADS_PLAYLIST_ID + " TEXT, "
+                    + COLUMN_UPDATED_AT + " INTEGER NOT NULL)");
+
+            db.execSQL("CREATE TABLE " + TABLE_VIDEOS + " ("
+                    + COLUMN_VIDEO_ID + " TEXT PRIMARY KEY, "
+                    + COLUMN_CHANNEL_ID + " TEXT NOT NULL, "
+                    + COLUMN_TITLE + " TEXT, "
+                    + COLUMN_DESCRIPTION + " TEXT, "
+                    + COLUMN_CHANNEL_TITLE + " TEXT, "
+                    + COLUMN_PUBLISHED_AT + " TEXT, "
+                    + COLUMN_THUMBNAIL_MEDIUM + " TEXT, "
+                    + COLUMN_UPDATED_AT + " INTEGER NOT NULL)");
+
+            // publishedAt is ISO 8601 in UTC, so text order is time order
+            db.execSQL("CREATE INDEX idx_videos_channel_published ON " + TABLE_VIDEOS
+                    + " (" + COLUMN_CHANNEL_ID + ", " + COLUMN_PUBLISHED_AT + " DESC)");
+            db.execSQL("CREATE INDEX idx_videos_published ON " + TABLE_VIDEOS
+                    + " (" + COLUMN_PUBLISHED_AT + " DESC)");
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            // The catalog is a cache of API data, so it can simply be rebuilt
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_VIDEOS);
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_CHANNELS);
+            onCreate(db);
+        }
+    }
+
+    private VideoCatalog(Context context) {
+        dbHelper = new DbHelper(context);
+    }
+
+    public static synchronized VideoCatalog getInstance(Context context) {
+        if (instance == null) {
+            instance = new VideoCatalog(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Insert or replace videos in one transaction
+     */
+    public void upsertVideos(String channelId, List<YouTubeVideo> videos) {
+        if (videos == null || videos.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        long now = startTime;
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        SQLiteStatement statement = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_VIDEOS + " ("
+                + COLUMN_VIDEO_ID + ", " + COLUMN_CHANNEL_ID + ", " + COLUMN_TITLE + ", "
+                + COLUMN_DESCRIPTION + ", " + COLUMN_CHANNEL_TITLE + ", " + COLUMN_PUBLISHED_AT + ", "
+                + COLUMN_THUMBNAIL_MEDIUM + ", " + COLUMN_UPDATED_AT + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+
+        int written = 0;
+        db.beginTransaction();
+        try {
+            for (YouTubeVideo video : videos) {
+                String videoId = video.getVideoId();
+                if (videoId == null || videoId.isEmpty()) {
+                    continue;
+                }
+                YouTubeVideo.VideoSnippet snippet = video.getSnippet();
+                String videoChannelId = snippet != null && snippet.getChannelId() != null
+                        ? snippet.getChannelId() : channelId;
+
+                statement.clearBindings();
+                statement.bindString(1, videoId);
+                statement.bindString(2, videoChannelId);
+                bindNullable(statement, 3, snippet != null ? snippet.getTitle() : null);
+                bindNullable(statement, 4, snippet != null ? snippet.getDescription() : null);
+                bindNullable(statement, 5, snippet != null ? snippet.getChannelTitle() : null);
+                bindNullable(statement, 6, snippet != null ? snippet.getPublishedAt() : null);
+                bindNullable(statement, 7, snippet != null ? thumbnailUrl(snippet.getThumbnails(), "medium") : null);
+                statement.bindLong(8, now);
+                statement.executeInsert();
+                written++;
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+        }
+
+        Log.d(TAG, "Upserted " + written + " videos in " + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    /**
+     * Store a freshly downloaded first page and drop the stored videos it proves are gone.
+     * The first page holds the channel's newest uploads, so any stored video of the channel
+     * published within the page's time range but missing from it was deleted or made private.
+     * When complete is true the page is the whole channel and every other stored video goes.
+     */
+    public void replaceNewestVideos(String channelId, List<YouTubeVideo> firstPage, boolean complete) {
+        String oldest = null;
+        List<String> args = new ArrayList<>();
+        args.add(channelId);
+        StringBuilder keep = new StringBuilder();
+        for (YouTubeVideo video : firstPage) {
+            String videoId = video.getVideoId();
+            if (videoId == null || videoId.isEmpty()) {
+                continue;
+            }
+            keep.append(keep.length() == 0 ? "?" : ", ?");
+            args.add(videoId);
+
+            String publishedAt = video.getSnippet() != null ? video.getSnippet().getPublishedAt() : null;
+            if (publishedAt != null && (oldest == null || publishedAt.compareTo(oldest) < 0)) {
+                oldest = publishedAt;
+            }
+        }
+        if (!complete && oldest == null) {
+            // Nothing to bound the range with, so nothing can be shown to be gone
+            upsertVideos(channelId, firstPage);
+            return;
+        }
+
+        String where = COLUMN_CHANNEL_ID + " = ?";
+        if (!complete) {
+            where += " AND " + COLUMN_PUBLISHED_AT + " >= ?";
+            args.add(1, oldest);
+        }
+        if (keep.length() > 0) {
+            where += " AND " + COLUMN_VIDEO_ID + " NOT IN (" + keep + ")";
+        }
+
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            int removed = db.delete(TABLE_VIDEOS, where, args.toArray(new String[0]));
+            upsertVideos(channelId, firstPage);
+            db.setTransactionSuccessful();
+            if (removed > 0) {
+                Log.d(TAG, "Removed " + removed + " videos no longer listed by channel " + channelId);
+            }
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Newest videos for a channel, up to limit
+     */
+    public List<YouTubeVideo> getVideosForChannel(String channelId, int limit) {
+        List<YouTubeVideo> videos = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        try (Cursor cursor = db.query(TABLE_VIDEOS,
+                new String[]{COLUMN_VIDEO_ID, COLUMN_CHANNEL_ID, COLUMN_TITLE, COLUMN_DESCRIPTION,
+                        COLUMN_CHANNEL_TITLE, COLUMN_PUBLISHED_AT, COLUMN_THUMBNAIL_MEDIUM},
+                COLUMN_CHANNEL_ID + " = ?", new String[]{channelId},
+                null, null, COLUMN_PUBLISHED_AT + " DESC", String.valueOf(limit))) {
+            while (cursor.moveToNext()) {
+                videos.add(readVideo(cursor));
+            }
+        }
+        return videos;
+    }
+
+    public int getVideoCount(String channelId) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        return (int) DatabaseUtils.queryNumEntries(db, TABLE_VIDEOS,
+                COLUMN_CHANNEL_ID + " = ?", new String[]{channelId});
+    }
+
+    /**
+     * Insert or replace channels in one transaction
+     */
+    public void upsertChannels(List<YouTubeChannel> channels) {
+        if (channels == null || channels.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        SQLiteStatement statement = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_CHANNELS + " ("
+                + COLUMN_CHANNEL_ID + ", " + COLUMN_TITLE + ", " + COLUMN_DESCRIPTION + ", "
+                + COLUMN_THUMBNAIL_DEFAULT + ", " + COLUMN_THUMBNAIL_MEDIUM + ", " + COLUMN_THUMBNAIL_HIGH + ", "
+                + COLUMN_SUBSCRIBER_COUNT + ", " + COLUMN_VIDEO_COUNT + ", " + COLUMN_VIEW_COUNT + ", "
+                + COLUMN_UPLOADS_PLAYLIST_ID + ", " + COLUMN_UPDATED_AT
+                + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+
+        db.beginTransaction();
+        try {
+            for (YouTubeChannel channel : channels) {
+                if (channel.getId() == null) {
+                    continue;
+                }
+                YouTubeChannel.ChannelSnippet snippet = channel.getSnippet();
+                YouTubeChannel.Thumbnails thumbnails = snippet != null ? snippet.getThumbnails() : null;
+                YouTubeChannel.ChannelStatistics statistics = channel.getStatistics();
+
+                statement.clearBindings();
+                statement.bindString(1, channel.getId());
+                bindNullable(statement, 2, snippet != null ? snippet.getTitle() : null);
+                bindNullable(statement, 3, snippet != null ? snippet.getDescription() : null);
+                bindNullable(statement, 4, thumbnailUrl(thumbnails, "default"));
+                bindNullable(statement, 5, thumbnailUrl(thumbnails, "medium"));
+                bindNullable(statement, 6, thumbnailUrl(thumbnails, "high"));
+                bindNullable(statement, 7, statistics != null ? statistics.getSubscriberCount() : null);
+                bindNullable(statement, 8, statistics != null ? statistics.getVideoCount() : null);
+                bindNullable(statement, 9, statistics != null ? statistics.getViewCount() : null);
+                bindNullable(statement, 10, channel.getUploadsPlaylistId());
+                statement.bindLong(11, now);
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+        }
+    }
+
+    /**
+     * Stored channel, or null if it has never been saved
+     */
+    public YouTubeChannel getChannel(String channelId) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        try (Cursor cursor = db.query(TABLE_CHANNELS, null, COLUMN_CHANNEL_ID + " = ?",
+                new String[]{channelId}, null, null, null)) {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+
+            YouTubeChannel.ChannelSnippet snippet = new YouTubeChannel.ChannelSnippet();
+            snippet.setTitle(getString(cursor, COLUMN_TITLE));
+            snippet.setDescription(getString(cursor, COLUMN_DESCRIPTION));
+            YouTubeChannel.Thumbnails thumbnails = new YouTubeChannel.Thumbnails();
+            thumbnails.setDefaultThumbnail(thumbnail(getString(cursor, COLUMN_THUMBNAIL_DEFAULT)));
+            thumbnails.setMedium(thumbnail(getString(cursor, COLUMN_THUMBNAIL_MEDIUM)));
+            thumbnails.setHigh(thumbnail(getString(cursor, COLUMN_THUMBNAIL_HIGH)));
+            snippet.setThumbnails(thumbnails);
+
+            YouTubeChannel.ChannelStatistics statistics = new YouTubeChannel.ChannelStatistics();
+            statistics.setSubscriberCount(getString(cursor, COLUMN_SUBSCRIBER_COUNT));
+            statistics.setVideoCount(getString(cursor, COLUMN_VIDEO_COUNT));
+            statistics.setViewCount(getString(cursor, COLUMN_VIEW_COUNT));
+
+            YouTubeChannel channel = new YouTubeChannel();
+            channel.setId(channelId);
+            channel.setSnippet(snippet);
+            channel.setStatistics(statistics);
+
+            String uploadsId = getString(cursor, COLUMN_UPLOADS_PLAYLIST_ID);
+            if (uploadsId != null) {
+                YouTubeChannel.RelatedPlaylists playlists = new YouTubeChannel.RelatedPlaylists();
+                playlists.setUploads(uploadsId);
+                YouTubeChannel.ChannelContentDetails contentDetails = new YouTubeChannel.ChannelContentDetails();
+                contentDetails.setRelatedPlaylists(playlists);
+                channel.setContentDetails(contentDetails);
+            }
+            return channel;
+        }
+    }
+
+    private static YouTubeVideo readVideo(Cursor cursor) {
+        YouTubeVideo.VideoId id = new YouTubeVideo.VideoId();
+        id.setKind("youtube#video");
+        id.setVideoId(cursor.getString(0));
+
+        YouTubeVideo.VideoSnippet snippet = new YouTubeVideo.VideoSnippet();
+        snippet.setChannelId(cursor.getString(1));
+        snippet.setTitle(cursor.getString(2));
+        snippet.setDescription(cursor.getString(3));
+        snippet.setChannelTitle(cursor.getString(4));
+        snippet.setPublishedAt(cursor.getString(5));
+        YouTubeChannel.Thumbnails thumbnails = new YouTubeChannel.Thumbnails();
+        thumbnails.setMedium(thumbnail(cursor.getString(6)));
+        snippet.setThumbnails(thumbnails);
+
+        YouTubeVideo video = new YouTubeVideo();
+        video.setId(id);
+        video.setSnippet(snippet);
+        return video;
+    }
+
+    private static String thumbnailUrl(YouTubeChannel.Thumbnails thumbnails, String size) {
+        if (thumbnails == null) {
+            return null;
+        }
+        YouTubeChannel.Thumbnail thumbnail;
+        switch (size) {
+            case "default":
+                thumbnail = thumbnails.getDefaultThumbnail();
+                break;
+            case "high":
+                thumbnail = thumbnails.getHigh();
+                break;
+            default:
+                thumbnail = thumbnails.getMedium();
+                break;
+        }
+        return thumbnail != null ? thumbnail.getUrl() : null;
+    }
+
+    private static YouTubeChannel.Thumbnail thumbnail(String url) {
+        if (url == null) {
+            return null;
+        }
+        YouTubeChannel.Thumbnail thumbnail = new YouTubeChannel.Thumbnail();
+        thumbnail.setUrl(url);
+        return thumbnail;
+    }
+
+    private static String getString(Cursor cursor, String column) {
+        return cursor.getString(cursor.getColumnIndexOrThrow(column));
+    }
+
+    private static void bindNullable(SQLiteStatement statement, int index, String value) {
+        if (value != null) {
+            statement.bindString(index, value);
+        } else {
+            statement.bindNull(index);
+        }
+    }
+}
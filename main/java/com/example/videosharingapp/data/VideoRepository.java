@@ -0,0 +1,146 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.videosharingapp.api.VideoPage;
+import com.example.videosharingapp.api.VideoPager;
+import com.example.videosharingapp.api.YouTubeApiManager;
+import com.example.videosharingapp.models.YouTubeChannel;
+import com.example.videosharingapp.models.YouTubeVideo;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Offline-first access to channels and their videos. Stored data is delivered from the local
+ * catalog straight away, then the network result replaces it and is written back, so lists
+ * render instantly and still work without a connection.
+ */
+public class VideoRepository {
+
+    private static final String TAG = "VideoRepository";
+
+    // Enough for the first screens of a channel, further pages come from the network
+    public static final int LOCAL_VIDEO_LIMIT = 100;
+
+    /**
+     * Pager listener that is also told about videos already stored on the device
+     */
+    public interface Listener extends VideoPager.Listener {
+        /** Stored videos, delivered before the first network page if that has not arrived yet */
+        void onStoredVideos(List<YouTubeVideo> videos);
+    }
+
+    // One thread keeps catalog writes ordered and off the main thread
+    private static final ExecutorService dbExecutor = Executors.newSingleThreadExecutor();
+
+    private final VideoCatalog catalog;
+    private final YouTubeApiManager apiManager;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public VideoRepository(Context context, YouTubeApiManager apiManager) {
+        this.catalog = VideoCatalog.getInstance(context);
+        this.apiManager = apiManager;
+    }
+
+    /**
+     * Start loading a channel's videos. Stored videos are delivered first, then network pages
+     * through the returned pager, and every page received is saved to the catalog. A first page
+     * fetched from the network also removes stored videos that the channel no longer lists.
+     */
+    public VideoPager loadChannelVideos(String channelId, Listener listener) {
+        // Set once the network answers so a slow disk read cannot overwrite fresher data
+        boolean[] networkDelivered = new boolean[1];
+
+        VideoPager pager = new VideoPager(apiManager, channelId, new VideoPager.Listener() {
+            @Override
+            public void onFirstPage(List<YouTubeVideo> videos, boolean hasMore, boolean fromCache) {
+                networkDelivered[0] = true;
+                // A cached page can be older than the catalog, so only a network page may prune
+                if (fromCache) {
+                    saveVideos(channelId, videos);
+                } else {
+                    dbExecutor.execute(() -> catalog.replaceNewestVideos(channelId, videos, !hasMore));
+                }
+                listener.onFirstPage(videos, hasMore, fromCache);
+            }
+
+            @Override
+            public void onHeadRefreshed(List<YouTubeVideo> newVideos, VideoPage page) {
+                dbExecutor.execute(() -> catalog.replaceNewestVideos(channelId, page.getVideos(), !page.hasMore()));
+                listener.onHeadRefreshed(newVideos, page);
+            }
+
+            @Override
+            public void onPageAppended(List<YouTubeVideo> videos, boolean hasMore) {
+                saveVideos(channelId, videos);
+                listener.onPageAppended(videos, hasMore);
+            }
+
+            @Override
+            public void onFailure(String error, boolean firstPage) {
+                listener.onFailure(error, firstPage);
+            }
+        });
+
+        long startTime = System.currentTimeMillis();
+        dbExecutor.execute(() -> {
+            List<YouTubeVideo> stored = catalog.getVideosForChannel(channelId, LOCAL_VIDEO_LIMIT);
+            Log.d(TAG, "Read " + stored.size() + " stored videos for channel " + channelId
+                    + " in " + (System.currentTimeMillis() - startTime) + "ms");
+
+            mainHandler.post(() -> {
+                if (!pager.isCanceled() && !networkDelivered[0] && !stored.isEmpty()) {
+                    listener.onStoredVideos(stored);
+                }
+            });
+        });
+
+        pager.loadFirstPage();
+        return pager;
+    }
+
+    /**
+     * Channel info from the catalog if stored, refreshed from the API in the background.
+     * The callback runs on the main thread, a second time if the network returns newer data.
+     */
+    public void getChannel(String channelId, YouTubeApiManager.ChannelInfoCallback callback) {
+        dbExecutor.execute(() -> {
+            YouTubeChannel stored = catalog.getChannel(channelId);
+            if (stored != null) {
+                mainHandler.post(() -> callback.onSuccess(stored));
+            }
+
+            mainHandler.post(() -> apiManager.getChannelInfo(channelId, new YouTubeApiManager.ChannelInfoCallback() {
+                @Override
+                public void onSuccess(YouTubeChannel channel) {
+                    dbExecutor.execute(() -> catalog.upsertChannels(Collections.singletonList(channel)));
+                    callback.onSuccess(channel);
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    if (stored == null) {
+                        callback.onFailure(error);
+                    } else {
+                        Log.w(TAG, "Channel refresh failed, keeping stored data: " + error);
+                    }
+                }
+            }));
+        });
+    }
+
+    private void saveVideos(String channelId, List<YouTubeVideo> videos) {
+        dbExecutor.execute(() -> catalog.upsertVideos(channelId, videos));
+    }
+}
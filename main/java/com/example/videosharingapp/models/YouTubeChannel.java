@@ -18,6 +18,9 @@ public class YouTubeChannel {
     @SerializedName("statistics")
     private ChannelStatistics statistics;
 
+    @SerializedName("contentDetails")
+    private ChannelContentDetails contentDetails;
+
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
 
@@ -27,6 +30,17 @@ public class YouTubeChannel {
     public ChannelStatistics getStatistics() { return statistics; }
     public void setStatistics(ChannelStatistics statistics) { this.statistics = statistics; }
 
+    public ChannelContentDetails getContentDetails() { return contentDetails; }
+    public void setContentDetails(ChannelContentDetails contentDetails) { this.contentDetails = contentDetails; }
+
+    // Helper method to get the ID of the playlist holding all of the channel's uploads
+    public String getUploadsPlaylistId() {
+        if (contentDetails != null && contentDetails.getRelatedPlaylists() != null) {
+            return contentDetails.getRelatedPlaylists().getUploads();
+        }
+        return null;
+    }
+
     public static class ChannelSnippet {
         @SerializedName("title")
         private String title;
@@ -67,6 +81,22 @@ public class YouTubeChannel {
         public void setViewCount(String viewCount) { this.viewCount = viewCount; }
     }
 
+    public static class ChannelContentDetails {
+        @SerializedName("relatedPlaylists")
+        private RelatedPlaylists relatedPlaylists;
+
+        public RelatedPlaylists getRelatedPlaylists() { return relatedPlaylists; }
+        public void setRelatedPlaylists(RelatedPlaylists relatedPlaylists) { this.relatedPlaylists = relatedPlaylists; }
+    }
+
+    public static class RelatedPlaylists {
+        @SerializedName("uploads")
+        private String uploads;
+
+        public String getUploads() { return uploads; }
+        public void setUploads(String uploads) { this.uploads = uploads; }
+    }
+
     public static class Thumbnails {
         @SerializedName("default")
         private Thumbnail defaultThumbnail;
@@ -0,0 +1,155 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+
+package com.example.videosharingapp.models;
+
+import com.google.gson.annotations.SerializedName;
+
+public class YouTubePlaylistItem {
+    @SerializedName("id")
+    private String id;
+
+    @SerializedName("snippet")
+    private PlaylistItemSnippet snippet;
+
+    @SerializedName("contentDetails")
+    private PlaylistItemContentDetails contentDetails;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public PlaylistItemSnippet getSnippet() { return snippet; }
+    public void setSnippet(PlaylistItemSnippet snippet) { this.snippet = snippet; }
+
+    public PlaylistItemContentDetails getContentDetails() { return contentDetails; }
+    public void setContentDetails(PlaylistItemContentDetails contentDetails) { this.contentDetails = contentDetails; }
+
+    // Helper method to get the ID of the video this playlist entry points to
+    public String getVideoId() {
+        if (contentDetails != null && contentDetails.getVideoId() != null) {
+            return contentDetails.getVideoId();
+        }
+        if (snippet != null && snippet.getResourceId() != null) {
+            return snippet.getResourceId().getVideoId();
+        }
+        return null;
+    }
+
+    /**
+     * Convert to the search-result model used by the rest of the app.
+     * Uses the video's own publish time rather than the time it was added to the playlist.
+     */
+    public YouTubeVideo toYouTubeVideo() {
+        YouTubeVideo.VideoId videoId = new YouTubeVideo.VideoId();
+        videoId.setKind("youtube#video");
+        videoId.setVideoId(getVideoId());
+
+        YouTubeVideo.VideoSnippet videoSnippet = new YouTubeVideo.VideoSnippet();
+        if (snippet != null) {
+            videoSnippet.setTitle(snippet.getTitle());
+            videoSnippet.setDescription(snippet.getDescription());
+            videoSnippet.setChannelId(snippet.getVideoOwnerChannelId() != null
+                    ? snippet.getVideoOwnerChannelId() : snippet.getChannelId());
+            videoSnippet.setChannelTitle(snippet.getVideoOwnerChannelTitle() != null
+                    ? snippet.getVideoOwnerChannelTitle() : snippet.getChannelTitle());
+            videoSnippet.setPublishedAt(snippet.getPublishedAt());
+            videoSnippet.setThumbnails(snippet.getThumbnails());
+        }
+        if (contentDetails != null && contentDetails.getVideoPublishedAt() != null) {
+            videoSnippet.setPublishedAt(contentDetails.getVideoPublishedAt());
+        }
+
+        YouTubeVideo video = new YouTubeVideo();
+        video.setId(videoId);
+        video.setSnippet(videoSnippet);
+        return video;
+    }
+
+    public static class PlaylistItemSnippet {
+        @SerializedName("title")
+        private String title;
+
+        @SerializedName("description")
+        private String description;
+
+        @SerializedName("channelId")
+        private String channelId;
+
+        @SerializedName("channelTitle")
+        private String channelTitle;
+
+        @SerializedName("videoOwnerChannelId")
+        private String videoOwnerChannelId;
+
+        @SerializedName("videoOwnerChannelTitle")
+        private String videoOwnerChannelTitle;
+
+        @SerializedName("publishedAt")
+        private String publishedAt;
+
+        @SerializedName("thumbnails")
+        private YouTubeChannel.Thumbnails thumbnails;
+
+        @SerializedName("resourceId")
+        private ResourceId resourceId;
+
+        public String getTitle() { return title; }
+        public void setTitle(String title) { this.title = title; }
+
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+
+        public String getChannelId() { return channelId; }
+        public void setChannelId(String channelId) { this.channelId = channelId; }
+
+        public String getChannelTitle() { return channelTitle; }
+        public void setChannelTitle(String channelTitle) { this.channelTitle = channelTitle; }
+
+        public String getVideoOwnerChannelId() { return videoOwnerChannelId; }
+        public void setVideoOwnerChannelId(String videoOwnerChannelId) { this.videoOwnerChannelId = videoOwnerChannelId; }
+
+        public String getVideoOwnerChannelTitle() { return videoOwnerChannelTitle; }
+        public void setVideoOwnerChannelTitle(String videoOwnerChannelTitle) { this.videoOwnerChannelTitle = videoOwnerChannelTitle; }
+
+        public String getPublishedAt() { return publishedAt; }
+        public void setPublishedAt(String publishedAt) { this.publishedAt = publishedAt; }
+
+        public YouTubeChannel.Thumbnails getThumbnails() { return thumbnails; }
+        public void setThumbnails(YouTubeChannel.Thumbnails thumbnails) { this.thumbnails = thumbnails; }
+
+        public ResourceId getResourceId() { return resourceId; }
+        public void setResourceId(ResourceId resourceId) { this.resourceId = resourceId; }
+    }
+
+    public static class ResourceId {
+        @SerializedName("kind")
+        private String kind;
+
+        @SerializedName("videoId")
+        private String videoId;
+
+        public String getKind() { return kind; }
+        public void setKind(String kind) { this.kind = kind; }
+
+        public String getVideoId() { return videoId; }
+        public void setVideoId(String videoId) { this.videoId = videoId; }
+    }
+
+    public static class PlaylistItemContentDetails {
+        @SerializedName("videoId")
+        private String videoId;
+
+        // Missing for private and deleted videos
+        @SerializedName("videoPublishedAt")
+        private String videoPublishedAt;
+
+        public String getVideoId() { return videoId; }
+        public void setVideoId(String videoId) { this.videoId = videoId; }
+
+        public String getVideoPublishedAt() { return videoPublishedAt; }
+        public void setVideoPublishedAt(String videoPublishedAt) { this.videoPublishedAt = videoPublishedAt; }
+    }
+}
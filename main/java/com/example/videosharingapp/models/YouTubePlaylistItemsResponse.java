@@ -0,0 +1,24 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+
+package com.example.videosharingapp.models;
+
+import com.google.gson.annotations.SerializedName;
+import java.util.List;
+
+public class YouTubePlaylistItemsResponse {
+    @SerializedName("items")
+    private List<YouTubePlaylistItem> items;
+
+    @SerializedName("nextPageToken")
+    private String nextPageToken;
+
+    public List<YouTubePlaylistItem> getItems() { return items; }
+    public void setItems(List<YouTubePlaylistItem> items) { this.items = items; }
+
+    public String getNextPageToken() { return nextPageToken; }
+    public void setNextPageToken(String nextPageToken) { this.nextPageToken = nextPageToken; }
+}
@@ -15,12 +15,18 @@ public class YouTubeVideo {
     @SerializedName("snippet")
     private VideoSnippet snippet;
 
+    // Duration and statistics from videos.list, attached after the list loads
+    private transient YouTubeVideoDetails details;
+
     public VideoId getId() { return id; }
     public void setId(VideoId id) { this.id = id; }
 
     public VideoSnippet getSnippet() { return snippet; }
     public void setSnippet(VideoSnippet snippet) { this.snippet = snippet; }
 
+    public YouTubeVideoDetails getDetails() { return details; }
+    public void setDetails(YouTubeVideoDetails details) { this.details = details; }
+
     // Helper method to get video ID as string
     public String getVideoId() {
         if (id != null) {
@@ -36,11 +42,18 @@ public class YouTubeVideo {
         @SerializedName("videoId")
         private String videoId;
 
+        // Set instead of videoId on search results of type channel
+        @SerializedName("channelId")
+        private String channelId;
+
         public String getKind() { return kind; }
         public void setKind(String kind) { this.kind = kind; }
 
         public String getVideoId() { return videoId; }
         public void setVideoId(String videoId) { this.videoId = videoId; }
+
+        public String getChannelId() { return channelId; }
+        public void setChannelId(String channelId) { this.channelId = channelId; }
     }
 
     public static class VideoSnippet {
@@ -0,0 +1,82 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+
+package com.example.videosharingapp.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class YouTubeVideoDetails {
+    private static final Pattern DURATION_PATTERN =
+            Pattern.compile("P(?:(\\d+)D)?T?(?:(\\d+)H)?(?:(\\d+)M)?(?:(\\d+)S)?");
+
+    @SerializedName("id")
+    private String id;
+
+    @SerializedName("contentDetails")
+    private VideoContentDetails contentDetails;
+
+    @SerializedName("statistics")
+    private VideoStatistics statistics;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public VideoContentDetails getContentDetails() { return contentDetails; }
+    public void setContentDetails(VideoContentDetails contentDetails) { this.contentDetails = contentDetails; }
+
+    public VideoStatistics getStatistics() { return statistics; }
+    public void setStatistics(VideoStatistics statistics) { this.statistics = statistics; }
+
+    // Helper method to turn the ISO 8601 duration (e.g. PT1H2M3S) into 1:02:03
+    public String getFormattedDuration() {
+        if (contentDetails == null || contentDetails.getDuration() == null) {
+            return null;
+        }
+
+        Matcher matcher = DURATION_PATTERN.matcher(contentDetails.getDuration());
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        long hours = parse(matcher.group(1)) * 24 + parse(matcher.group(2));
+        long minutes = parse(matcher.group(3));
+        long seconds = parse(matcher.group(4));
+        if (hours > 0) {
+            return String.format(Locale.US, "%d:%02d:%02d", hours, minutes, seconds);
+        }
+        return String.format(Locale.US, "%d:%02d", minutes, seconds);
+    }
+
+    private static long parse(String value) {
+        return value != null ? Long.parseLong(value) : 0;
+    }
+
+    public static class VideoContentDetails {
+        @SerializedName("duration")
+        private String duration;
+
+        public String getDuration() { return duration; }
+        public void setDuration(String duration) { this.duration = duration; }
+    }
+
+    public static class VideoStatistics {
+        @SerializedName("viewCount")
+        private String viewCount;
+
+        @SerializedName("likeCount")
+        private String likeCount;
+
+        public String getViewCount() { return viewCount; }
+        public void setViewCount(String viewCount) { this.viewCount = viewCount; }
+
+        public String getLikeCount() { return likeCount; }
+        public void setLikeCount(String likeCount) { this.likeCount = likeCount; }
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+
+package com.example.videosharingapp.models;
+
+import com.google.gson.annotations.SerializedName;
+import java.util.List;
+
+public class YouTubeVideoDetailsResponse {
+    @SerializedName("items")
+    private List<YouTubeVideoDetails> items;
+
+    public List<YouTubeVideoDetails> getItems() { return items; }
+    public void setItems(List<YouTubeVideoDetails> items) { this.items = items; }
+}
@@ -0,0 +1,116 @@
+/**
+ * Author: Nathan Addison
+ * For BIT603 Assessment 3
+ */
+
+package com.example.videosharingapp.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Golden inputs for YouTubeUrlParser with the result each one must give. Update the table
+ * whenever the parser's behaviour changes on purpose, and call findMismatches() (e.g. from a
+ * unit test or a scratch main method) after editing the parser. Kept out of the app sources
+ * so the table is not shipped in the APK.
+ *
+ * Expected results are written as the kind followed by the fields that are set, in the form
+ * produced by describe().
+ */
+public final class YouTubeUrlCorpus {
+
+    public static final String[][] CASES = {
+            // Video links
+            {"https://www.youtube.com/watch?v=dQw4w9WgXcQ", "VIDEO video=dQw4w9WgXcQ"},
+            {"http://youtube.com/watch?v=dQw4w9WgXcQ", "VIDEO video=dQw4w9WgXcQ"},
+            {"youtube.com/watch?v=dQw4w9WgXcQ", "VIDEO video=dQw4w9WgXcQ"},
+            {"HTTPS://WWW.YOUTUBE.COM/watch?v=dQw4w9WgXcQ", "VIDEO video=dQw4w9WgXcQ"},
+            {"https://m.youtube.com/watch?v=dQw4w9WgXcQ", "VIDEO video=dQw4w9WgXcQ"},
+            {"https://music.youtube.com/watch?v=dQw4w9WgXcQ", "VIDEO video=dQw4w9WgXcQ"},
+            {"https://www.youtube.com/watch?feature=shared&v=dQw4w9WgXcQ", "VIDEO video=dQw4w9WgXcQ"},
+            {"https://youtu.be/dQw4w9WgXcQ", "VIDEO video=dQw4w9WgXcQ"},
+            {"youtu.be/dQw4w9WgXcQ?si=abcdef", "VIDEO video=dQw4w9WgXcQ"},
+            {"https://www.youtube.com/embed/dQw4w9WgXcQ", "VIDEO video=dQw4w9WgXcQ"},
+            {"https://www.youtube-nocookie.com/embed/dQw4w9WgXcQ", "VIDEO video=dQw4w9WgXcQ"},
+            {"https://www.youtube.com/shorts/dQw4w9WgXcQ", "VIDEO video=dQw4w9WgXcQ"},
+            {"https://www.youtube.com/live/dQw4w9WgXcQ?feature=share", "VIDEO video=dQw4w9WgXcQ"},
+            {"https://www.youtube.com/v/dQw4w9WgXcQ", "VIDEO video=dQw4w9WgXcQ"},
+            {"  https://youtu.be/dQw4w9WgXcQ  ", "VIDEO video=dQw4w9WgXcQ"},
+
+            // Timestamps and playlists alongside a video
+            {"https://www.youtube.com/watch?v=dQw4w9WgXcQ&t=90", "VIDEO video=dQw4w9WgXcQ start=90"},
+            {"https://youtu.be/dQw4w9WgXcQ?t=90s", "VIDEO video=dQw4w9WgXcQ start=90"},
+            {"https://youtu.be/dQw4w9WgXcQ?t=1m30s", "VIDEO video=dQw4w9WgXcQ start=90"},
+            {"https://www.youtube.com/watch?v=dQw4w9WgXcQ#t=1h2m3s", "VIDEO video=dQw4w9WgXcQ start=3723"},
+            {"https://www.youtube.com/embed/dQw4w9WgXcQ?start=42", "VIDEO video=dQw4w9WgXcQ start=42"},
+            {"https://www.youtube.com/watch?v=dQw4w9WgXcQ&t=abc", "VIDEO video=dQw4w9WgXcQ"},
+            {"https://www.youtube.com/watch?v=dQw4w9WgXcQ&list=PLx0sYbCqOb8TBPRdmBHs5Iftvv9TPboYG",
+                    "VIDEO video=dQw4w9WgXcQ list=PLx0sYbCqOb8TBPRdmBHs5Iftvv9TPboYG"},
+            {"https://www.youtube.com/playlist?list=PLx0sYbCqOb8TBPRdmBHs5Iftvv9TPboYG",
+                    "PLAYLIST list=PLx0sYbCqOb8TBPRdmBHs5Iftvv9TPboYG"},
+
+            // Channels
+            {"UCRV15pO_LtX1unL71LQyhPw", "CHANNEL_ID channel=UCRV15pO_LtX1unL71LQyhPw"},
+            {"https://www.youtube.com/channel/UCRV15pO_LtX1unL71LQyhPw", "CHANNEL_ID channel=UCRV15pO_LtX1unL71LQyhPw"},
+            {"https://www.youtube.com/channel/UCRV15pO_LtX1unL71LQyhPw/videos",
+                    "CHANNEL_ID channel=UCRV15pO_LtX1unL71LQyhPw"},
+            {"@OpenPolytechnic", "HANDLE name=OpenPolytechnic"},
+            {"https://www.youtube.com/@OpenPolytechnic", "HANDLE name=OpenPolytechnic"},
+            {"https://www.youtube.com/@OpenPolytechnic/videos", "HANDLE name=OpenPolytechnic"},
+            {"https://www.youtube.com/c/OpenPolytechnic", "CUSTOM_URL name=OpenPolytechnic"},
+            {"https://www.youtube.com/user/OpenPolytechnic", "USERNAME name=OpenPolytechnic"},
+
+            // Rejected. Bare video IDs are rejected as the old URL pattern did.
+            {"dQw4w9WgXcQ", "INVALID"},
+            {"", "INVALID"},
+            {"   ", "INVALID"},
+            {"@", "INVALID"},
+            {"linus tech tips", "INVALID"},
+            {"https://www.youtube.com/watch?v=short", "INVALID"},
+            {"https://www.youtube.com/watch?v=dQw4w9WgXcQx", "INVALID"},
+            {"https://www.youtube.com/watch", "INVALID"},
+            {"https://www.youtube.com/feed/subscriptions", "INVALID"},
+            {"https://www.youtube.com/channel/UCshort", "INVALID"},
+            {"https://www.youtube.com/channel/XXRV15pO_LtX1unL71LQyhPw", "INVALID"},
+            {"https://youtube.com.example.com/watch?v=dQw4w9WgXcQ", "INVALID"},
+            {"https://vimeo.com/76979871", "INVALID"},
+            {"https://www.youtube.com/@Open Polytechnic", "INVALID"},
+    };
+
+    private YouTubeUrlCorpus() {
+    }
+
+    /**
+     * One line per case whose parse result differs from the expected one, empty when all pass
+     */
+    public static List<String> findMismatches() {
+        List<String> mismatches = new ArrayList<>();
+        for (String[] testCase : CASES) {
+            String actual = describe(YouTubeUrlParser.parse(testCase[0]));
+            if (!actual.equals(testCase[1])) {
+                mismatches.add("\"" + testCase[0] + "\": expected " + testCase[1] + ", got " + actual);
+            }
+        }
+        return mismatches;
+    }
+
+    public static String describe(YouTubeUrlParser.Result result) {
+        StringBuilder description = new StringBuilder(result.getKind().name());
+        if (result.getVideoId() != null) {
+            description.append(" video=").append(result.getVideoId());
+        }
+        if (result.getPlaylistId() != null) {
+            description.append(" list=").append(result.getPlaylistId());
+        }
+        if (result.getChannelId() != null) {
+            description.append(" channel=").append(result.getChannelId());
+        }
+        if (result.getName() != null) {
+            description.append(" name=").append(result.getName());
+        }
+        if (result.getStartSeconds() > 0) {
+            description.append(" start=").append(result.getStartSeconds());
+        }
+        return description.toString();
+    }
+}